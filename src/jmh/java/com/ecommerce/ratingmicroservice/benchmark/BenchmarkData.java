@@ -0,0 +1,101 @@
+package com.ecommerce.ratingmicroservice.benchmark;
+
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.entity.User;
+import com.ecommerce.ratingmicroservice.mapper.ReviewMapperUtil;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Representative fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static Product product(int i) {
+        Product product = new Product();
+        product.setId(String.format("65f0c0ffee0000000000%04d", i));
+        product.setName("Product " + i);
+        product.setDescription("A reasonably descriptive product description for product " + i);
+        product.setCategory("electronics");
+        product.setPrice(new BigDecimal("199.99"));
+        product.setImageUrl("https://cdn.example.com/products/" + i + ".png");
+        product.setAverageRating(4.2);
+        product.setTotalReviews(1250);
+        product.setRatingSum(5250L);
+        product.setRatingHistogram(new HashMap<>());
+        return product;
+    }
+
+    static User user(int i) {
+        return User.builder()
+                .id(String.format("65f0c0ffee00000000aa%04d", i))
+                .username("reviewer" + i)
+                .email("reviewer" + i + "@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8Y6sZ6rVYtYzZtG7q8xTj2u")
+                .roles(Set.of("USER"))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .isEmailVerified(true)
+                .build();
+    }
+
+    static Review review(int i) {
+        Product product = product(1);
+        User user = user(i);
+        Review review = new Review();
+        review.setId(String.format("65f0c0ffee00000000bb%04d", i));
+        review.setProduct(product);
+        review.setUser(user);
+        review.setProductId(product.getId());
+        review.setUserId(user.getId());
+        review.setUsername(user.getUsername());
+        review.setRating(1 + i % 5);
+        review.setComment("Solid product, battery lasts all day, would buy again #" + i);
+        review.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(i));
+        review.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0).plusMinutes(i));
+        review.setStatus(Review.Status.APPROVED);
+        return review;
+    }
+
+    static List<Review> reviews(int size) {
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            reviews.add(review(i));
+        }
+        return reviews;
+    }
+
+    static PageResponse<ReviewResponse> reviewPage(int size) {
+        List<ReviewResponse> content = new ArrayList<>(size);
+        for (Review review : reviews(size)) {
+            content.add(ReviewMapperUtil.toResponse(review));
+        }
+        return new PageResponse<>(content, 0, size, 1250, 1250 / size + 1, true, false, false, null);
+    }
+
+    static ProductResponse productResponse() {
+        return ProductResponse.from(product(1));
+    }
+
+    // Components under test use @Value field injection
+    static void inject(Object target, String field, Object value) {
+        Field f = ReflectionUtils.findField(target.getClass(), field);
+        if (f == null) {
+            throw new IllegalArgumentException("No field " + field + " on " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, target, value);
+    }
+}
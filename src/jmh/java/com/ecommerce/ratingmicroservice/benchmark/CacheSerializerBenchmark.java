@@ -0,0 +1,60 @@
+package com.ecommerce.ratingmicroservice.benchmark;
+
+import com.ecommerce.ratingmicroservice.cache.CompactCacheValueSerializer;
+import com.ecommerce.ratingmicroservice.config.RedisConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis cache value codecs from RedisConfig: the JSON serializer (default typing) vs the compact binary codec.
+ * Payload size per codec/value is printed in the fork output during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "binary"})
+    String codec;
+
+    @Param({"product", "reviewPage50"})
+    String value;
+
+    private RedisSerializer<Object> serializer;
+    private Object payload;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        RedisSerializer<Object> json = RedisConfig.jsonValueSerializer();
+        serializer = "binary".equals(codec) ? new CompactCacheValueSerializer(json) : json;
+        payload = "product".equals(value) ? BenchmarkData.productResponse() : BenchmarkData.reviewPage(50);
+        bytes = serializer.serialize(payload);
+        System.out.printf("%n[payload] codec=%s value=%s size=%d bytes%n", codec, value, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.ratingmicroservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request execution on platform vs virtual threads (spring.threads.virtual.enabled) under a
+ * concurrency higher than Tomcat's default 200 worker threads.
+ *
+ * Each op is one simulated read request: a Redis round trip followed by a Mongo round trip
+ * (blocking sleeps standing in for socket reads). JMH's 400 client threads submit requests and
+ * wait for them, so queueing in the executor shows up in the latency.
+ * - PLATFORM: fixed pool of 200, as Tomcat's server.tomcat.threads.max
+ * - VIRTUAL: one virtual thread per request
+ * - VIRTUAL_PINNED: as VIRTUAL, but the Redis call runs inside synchronized, like a loader inside
+ *   Caffeine's compute did before CacheGenerations/JwtAuthenticationFilter were changed;
+ *   the carrier threads stay blocked, so throughput drops to (cores / latency)
+ *
+ * Read throughput from the thrpt run and p0.99 from the sample run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final int PLATFORM_WORKERS = 200;
+    private static final Duration REDIS_LATENCY = Duration.ofMillis(1);
+    private static final Duration MONGO_LATENCY = Duration.ofMillis(5);
+    private static final int LOCK_STRIPES = 64;
+
+    public enum ExecutionMode { PLATFORM, VIRTUAL, VIRTUAL_PINNED }
+
+    @Param({"PLATFORM", "VIRTUAL", "VIRTUAL_PINNED"})
+    ExecutionMode mode;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        executor = mode == ExecutionMode.PLATFORM
+                ? Executors.newFixedThreadPool(PLATFORM_WORKERS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Object request() throws Exception {
+        return executor.submit(this::handle).get();
+    }
+
+    private Object handle() throws InterruptedException {
+        int key = ThreadLocalRandom.current().nextInt(10_000);
+        if (mode == ExecutionMode.VIRTUAL_PINNED) {
+            synchronized (locks[key % LOCK_STRIPES]) {
+                Thread.sleep(REDIS_LATENCY);
+            }
+        } else {
+            Thread.sleep(REDIS_LATENCY);
+        }
+        Thread.sleep(MONGO_LATENCY);
+        return key;
+    }
+}
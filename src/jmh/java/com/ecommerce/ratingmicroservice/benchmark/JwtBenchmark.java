@@ -0,0 +1,87 @@
+package com.ecommerce.ratingmicroservice.benchmark;
+
+import com.ecommerce.ratingmicroservice.security.JwtAuthenticationFilter;
+import com.ecommerce.ratingmicroservice.security.JwtUtil;
+import com.ecommerce.ratingmicroservice.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication hot path: JwtUtil token parsing/validation and the full JwtAuthenticationFilter.
+ * Tokens carry uid/roles/verified claims, so the filter builds the principal without the UserDetailsService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long!!";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        BenchmarkData.inject(jwtUtil, "secret", SECRET);
+        BenchmarkData.inject(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+
+        principal = new UserPrincipal("65f0c0ffee00000000aa0001", "reviewer1@example.com", "x", true,
+                Set.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtil.generateToken(principal);
+
+        UserDetailsService userDetailsService = username -> principal;
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Object parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, principal);
+    }
+
+    @Benchmark
+    public Object filterAuthenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reviews/user/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.ratingmicroservice.benchmark;
+
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.mapper.ReviewMapperUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> DTO mapping on the read path: ReviewMapperUtil.toResponse, ProductResponse.from, PageResponse.from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "50"})
+    int pageSize;
+
+    private Review review;
+    private Product product;
+    private List<Review> reviews;
+
+    @Setup
+    public void setUp() {
+        review = BenchmarkData.review(1);
+        product = BenchmarkData.product(1);
+        reviews = BenchmarkData.reviews(pageSize);
+    }
+
+    @Benchmark
+    public ReviewResponse reviewToResponse() {
+        return ReviewMapperUtil.toResponse(review);
+    }
+
+    @Benchmark
+    public ProductResponse productFrom() {
+        return ProductResponse.from(product);
+    }
+
+    @Benchmark
+    public PageResponse<ReviewResponse> reviewPageFrom() {
+        Page<Review> page = new PageImpl<>(reviews, PageRequest.of(0, pageSize), 1250);
+        return PageResponse.from(page.map(ReviewMapperUtil::toResponse));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for paged responses that may be slightly stale, shared by all nodes through Redis.
+ *
+ * A total is counted at most once per TTL per filter and is never evicted on writes,
+ * so it can lag inserts and deletes by up to the TTL. Stored as a plain string key
+ * (ecommerce:count:<key>) rather than through the cache abstraction, whose JSON codec
+ * does not round-trip a bare Long.
+ */
+@Component
+public class ApproximateCounts {
+
+    private static final String PREFIX = "ecommerce:count:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public ApproximateCounts(StringRedisTemplate redisTemplate,
+                             @Value("${app.cache.approximate-count-ttl:5m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        String cached = redisTemplate.opsForValue().get(PREFIX + key);
+        if (cached != null) {
+            return Long.parseLong(cached);
+        }
+
+        long count = counter.getAsLong();
+        redisTemplate.opsForValue().set(PREFIX + key, Long.toString(count), ttl);
+        return count;
+    }
+}
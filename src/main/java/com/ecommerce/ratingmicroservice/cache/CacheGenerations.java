@@ -0,0 +1,133 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Per-product and per-user generation counters folded into cache keys.
+ *
+ * Cached review pages are keyed as <id>:v<generation>:..., so bumping a generation
+ * (one Redis INCR) makes every page of that product/user unreachable without scanning
+ * or wiping the cache; the orphaned entries simply expire with their TTL.
+ *
+ * Used from SpEL cache keys as @cacheGenerations.forProduct(#productId). SpEL keys are evaluated on the
+ * calling thread, so reactive callers use forProductReactive and build their key inside the chain instead.
+ *
+ * Current generations are memoized locally so an L1 cache hit does not need a Redis GET;
+ * bumps are broadcast on the invalidation bus and the short local TTL bounds staleness
+ * if a message is missed.
+ */
+@Component("cacheGenerations")
+public class CacheGenerations implements CacheInvalidationBus.LocalInvalidationListener {
+
+    private static final String PREFIX = "ecommerce:generation:";
+    private static final String BUS_NAME = "__generations";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<String, Long> local = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofSeconds(5))
+            .build();
+
+    public CacheGenerations(StringRedisTemplate redisTemplate, ReactiveStringRedisTemplate reactiveRedisTemplate,
+                            CacheInvalidationBus invalidationBus) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(BUS_NAME, this);
+    }
+
+    public long forProduct(String productId) {
+        return current("product:" + productId);
+    }
+
+    public long forUser(String userId) {
+        return current("user:" + userId);
+    }
+
+    // Same value as forProduct; a local miss is a non-blocking GET
+    public Mono<Long> forProductReactive(String productId) {
+        String scope = "product:" + productId;
+        Long cached = local.getIfPresent(scope);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return reactiveRedisTemplate.opsForValue().get(PREFIX + scope)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L)
+                .map(generation -> remember(scope, generation));
+    }
+
+    public void bumpProduct(String productId) {
+        bumpAfterCommit("product:" + productId);
+    }
+
+    public void bumpUser(String userId) {
+        bumpAfterCommit("user:" + userId);
+    }
+
+    // Redis is read outside Caffeine's compute: a loader runs under a map bin lock,
+    // which would pin a virtual thread's carrier for the whole round trip
+    private long current(String scope) {
+        Long cached = local.getIfPresent(scope);
+        if (cached != null) {
+            return cached;
+        }
+
+        String value = redisTemplate.opsForValue().get(PREFIX + scope);
+        return remember(scope, value != null ? Long.parseLong(value) : 0L);
+    }
+
+    // Generations only grow: a read that started before a bump on this node must not put the older value back,
+    // and the bus does not echo our own bumps to correct it
+    private long remember(String scope, long generation) {
+        return local.asMap().merge(scope, generation, Math::max);
+    }
+
+    // Bumping before commit would let a concurrent reader cache pre-commit data under the new generation
+    private void bumpAfterCommit(String scope) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(scope);
+                }
+            });
+        } else {
+            bump(scope);
+        }
+    }
+
+    private void bump(String scope) {
+        Long generation = redisTemplate.opsForValue().increment(PREFIX + scope);
+        if (generation != null) {
+            remember(scope, generation);
+        } else {
+            local.invalidate(scope);
+        }
+        invalidationBus.publishEvict(BUS_NAME, scope);
+    }
+
+    // --- bumps received from other nodes ---
+
+    @Override
+    public void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    @Override
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+}
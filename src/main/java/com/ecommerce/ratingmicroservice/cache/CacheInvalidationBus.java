@@ -0,0 +1,79 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcasts L1 invalidations to every node over Redis pub/sub.
+ * Message format: <nodeId>\n<E|C>\n<cacheName>\n<key> (E = evict key, C = clear cache).
+ * Messages published by this node are ignored on receipt - the local tier was already updated.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "ecommerce:cache-invalidation";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, LocalInvalidationListener> listeners = new ConcurrentHashMap<>();
+
+    public interface LocalInvalidationListener {
+        void evictLocal(String key);
+
+        void clearLocal();
+    }
+
+    public void register(String cacheName, LocalInvalidationListener listener) {
+        listeners.put(cacheName, listener);
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(EVICT, cacheName, key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(CLEAR, cacheName, "");
+    }
+
+    private void publish(String operation, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "\n" + operation + "\n" + cacheName + "\n" + key);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the L1 TTL
+            log.warn("Could not publish cache invalidation for {}:{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        LocalInvalidationListener listener = listeners.get(parts[2]);
+        if (listener == null) {
+            return;
+        }
+
+        if (CLEAR.equals(parts[1])) {
+            listener.clearLocal();
+        } else {
+            listener.evictLocal(parts[3]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the background reloads of RefreshAheadCache on a small bounded pool.
+ * Refreshes are best effort: when the queue is full the task is dropped and the entry
+ * simply expires as it would have without refresh-ahead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheRefresher {
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final StringRedisTemplate redisTemplate;
+    private final TwoTierCacheProperties properties;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        int workers = properties.getRefreshWorkers();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues a refresh. The caller's security context is carried over, since some cached
+     * methods (reviewsByUser) read the current principal while loading.
+     *
+     * @return false if the task was dropped
+     */
+    boolean submit(Runnable task) {
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Cache refresh queue full, skipping refresh");
+            return false;
+        }
+    }
+
+    /**
+     * Remaining TTL of a Redis entry in milliseconds; negative if the key is gone or Redis is unavailable.
+     */
+    long remainingMillis(String redisKey) {
+        try {
+            Long ttl = redisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+            return ttl != null ? ttl : -1;
+        } catch (RuntimeException e) {
+            log.debug("Could not read TTL of {}: {}", redisKey, e.getMessage());
+            return -1;
+        }
+    }
+}
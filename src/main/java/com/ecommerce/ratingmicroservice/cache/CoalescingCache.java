@@ -0,0 +1,109 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Decorates a Redis-only cache with per-key single-flight loading for @Cacheable(sync = true).
+ * RedisCache's own synchronized loading takes one lock for the whole cache, so a slow miss on one key
+ * would also hold up misses on every other key; here only callers for the same key wait.
+ */
+public class CoalescingCache implements Cache {
+
+    private final Cache target;
+    private final SingleFlight singleFlight;
+
+    public CoalescingCache(Cache target, SingleFlight singleFlight) {
+        this.target = target;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = target.get(key);
+        if (cached != null && cached.get() != null) {
+            return (T) cached.get();
+        }
+
+        try {
+            return singleFlight.load(getName() + "::" + key, () -> {
+                // A caller that finished just before we registered may already have stored it
+                ValueWrapper current = target.get(key);
+                if (current != null && current.get() != null) {
+                    return (T) current.get();
+                }
+                T loaded = valueLoader.call();
+                if (loaded != null) {
+                    target.put(key, loaded);
+                }
+                return loaded;
+            }, () -> target.get(key));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return target.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return target.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return target.invalidate();
+    }
+}
@@ -0,0 +1,352 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema-aware binary codec for the cached DTOs (ProductResponse, ReviewResponse,
+ * PageResponse and List of those). Fields are written positionally with varint lengths,
+ * so there are no property names and no "@class" type hints in the payload.
+ *
+ * Layout: MAGIC, VERSION, then a tagged value.
+ * - Values of any other type are written with the JSON fallback serializer.
+ * - Payloads without MAGIC are read as JSON, so entries written before switching a cache to binary stay readable.
+ * - Payloads with an unknown VERSION are reported as a cache miss and get rewritten in this node's format.
+ * For a rolling deploy, ship this reader first with the codec set to json, then switch caches to binary.
+ */
+public class CompactCacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte PRODUCT = 1;
+    private static final byte REVIEW = 2;
+    private static final byte PAGE = 3;
+    private static final byte LIST = 4;
+
+    private static final Review.Status[] STATUSES = Review.Status.values();
+
+    private final RedisSerializer<Object> fallback;
+
+    public CompactCacheValueSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || !isSupported(value)) {
+            return fallback.serialize(value);
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeValue(out, value);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 2 || bytes[1] != VERSION) {
+            return null; // written by a newer/older schema - treat as a miss
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+            return readValue(in);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+
+    // --- type support ---
+
+    private static boolean isSupported(Object value) {
+        if (value instanceof ProductResponse || value instanceof ReviewResponse) {
+            return true;
+        }
+        if (value instanceof PageResponse<?> page) {
+            return page.getContent() != null && allSupported(page.getContent());
+        }
+        if (value instanceof List<?> list) {
+            return allSupported(list);
+        }
+        return false;
+    }
+
+    private static boolean allSupported(List<?> elements) {
+        for (Object element : elements) {
+            if (!(element instanceof ProductResponse) && !(element instanceof ReviewResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- writing ---
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof ProductResponse product) {
+            out.writeByte(PRODUCT);
+            writeProduct(out, product);
+        } else if (value instanceof ReviewResponse review) {
+            out.writeByte(REVIEW);
+            writeReview(out, review);
+        } else if (value instanceof PageResponse<?> page) {
+            out.writeByte(PAGE);
+            writePage(out, page);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            writeElements(out, list);
+        } else {
+            throw new IOException("Unsupported cache value type: " + value.getClass().getName());
+        }
+    }
+
+    private static void writeProduct(DataOutputStream out, ProductResponse product) throws IOException {
+        writeString(out, product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getDescription());
+        writeString(out, product.getCategory());
+        writeDecimal(out, product.getPrice());
+        writeString(out, product.getImageUrl());
+        writeDouble(out, product.getAverageRating());
+        writeInteger(out, product.getTotalReviews());
+    }
+
+    private static void writeReview(DataOutputStream out, ReviewResponse review) throws IOException {
+        writeString(out, review.getId());
+        writeString(out, review.getProductId());
+        writeString(out, review.getUserId());
+        writeString(out, review.getUsername());
+        writeInteger(out, review.getRating());
+        writeString(out, review.getComment());
+        writeDateTime(out, review.getCreatedAt());
+        writeDateTime(out, review.getUpdatedAt());
+        writeVarInt(out, review.getStatus() == null ? 0 : review.getStatus().ordinal() + 1);
+    }
+
+    private static void writePage(DataOutputStream out, PageResponse<?> page) throws IOException {
+        writeElements(out, page.getContent());
+        out.writeInt(page.getPageNumber());
+        out.writeInt(page.getPageSize());
+        out.writeLong(page.getTotalElements());
+        out.writeInt(page.getTotalPages());
+        out.writeByte((page.isFirst() ? 1 : 0) | (page.isLast() ? 2 : 0) | (page.isEmpty() ? 4 : 0));
+        writeString(out, page.getNextCursor());
+    }
+
+    private static void writeElements(DataOutputStream out, List<?> elements) throws IOException {
+        writeVarInt(out, elements.size());
+        for (Object element : elements) {
+            writeValue(out, element);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + 1);
+        out.write(utf8);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarInt(out, unscaled.length + 1);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    // --- reading ---
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case PRODUCT -> readProduct(in);
+            case REVIEW -> readReview(in);
+            case PAGE -> readPage(in);
+            case LIST -> readElements(in);
+            default -> throw new IOException("Unknown cache value tag: " + tag);
+        };
+    }
+
+    private static ProductResponse readProduct(DataInputStream in) throws IOException {
+        return new ProductResponse(
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                readDecimal(in),
+                readString(in),
+                readDouble(in),
+                readInteger(in)
+        );
+    }
+
+    private static ReviewResponse readReview(DataInputStream in) throws IOException {
+        ReviewResponse review = new ReviewResponse();
+        review.setId(readString(in));
+        review.setProductId(readString(in));
+        review.setUserId(readString(in));
+        review.setUsername(readString(in));
+        review.setRating(readInteger(in));
+        review.setComment(readString(in));
+        review.setCreatedAt(readDateTime(in));
+        review.setUpdatedAt(readDateTime(in));
+        int status = readVarInt(in);
+        review.setStatus(status == 0 ? null : STATUSES[status - 1]);
+        return review;
+    }
+
+    private static PageResponse<Object> readPage(DataInputStream in) throws IOException {
+        List<Object> content = readElements(in);
+        int pageNumber = in.readInt();
+        int pageSize = in.readInt();
+        long totalElements = in.readLong();
+        int totalPages = in.readInt();
+        int flags = in.readByte();
+        String nextCursor = readString(in);
+        return new PageResponse<>(
+                content,
+                pageNumber,
+                pageSize,
+                totalElements,
+                totalPages,
+                (flags & 1) != 0,
+                (flags & 2) != 0,
+                (flags & 4) != 0,
+                nextCursor
+        );
+    }
+
+    private static List<Object> readElements(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        List<Object> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(readValue(in));
+        }
+        return elements;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length - 1];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length - 1];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    private static Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 28) {
+                throw new IOException("Malformed varint");
+            }
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
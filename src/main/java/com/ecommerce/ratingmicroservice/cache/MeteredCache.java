@@ -0,0 +1,151 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import com.ecommerce.ratingmicroservice.timing.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Outermost cache decorator: counts what callers see, across all tiers.
+ * - cache.gets{cache, result=hit|miss}: a miss is a read that ran the loader (or found nothing)
+ * - cache.loads{cache}: time spent in the loader, i.e. what a miss costs
+ * - cache.puts{cache}, cache.evictions{cache}
+ * Hit ratio = hit / (hit + miss). Redis latency is recorded separately by TimedCache.
+ * Loader time is also reported as the miss phase of the request's Server-Timing.
+ */
+public class MeteredCache implements Cache {
+
+    private final Cache target;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Timer loads;
+
+    public MeteredCache(Cache target, MeterRegistry registry) {
+        this.target = target;
+        String name = target.getName();
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit").register(registry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss").register(registry);
+        this.puts = Counter.builder("cache.puts").tag("cache", name).register(registry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", name).register(registry);
+        this.loads = Timer.builder("cache.loads").tag("cache", name)
+                .description("Time spent loading a value after a cache miss")
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = target.get(key);
+        count(wrapper != null);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = target.get(key, type);
+        count(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = target.get(key, () -> {
+            loaded.set(true);
+            long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } finally {
+                long nanos = System.nanoTime() - start;
+                loads.record(nanos, TimeUnit.NANOSECONDS);
+                RequestTimings.record("miss", nanos);
+            }
+        });
+        count(!loaded.get());
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> result = target.retrieve(key);
+        if (result == null) {
+            misses.increment();
+            return null;
+        }
+        return result.whenComplete((value, error) -> count(error == null && value != null));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        return target.retrieve(key, () -> {
+            loaded.set(true);
+            Timer.Sample sample = Timer.start();
+            return valueLoader.get().whenComplete((value, error) -> sample.stop(loads));
+        }).whenComplete((value, error) -> count(!loaded.get()));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = target.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+        evictions.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = target.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+        evictions.increment();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictions.increment();
+        return target.invalidate();
+    }
+
+    private void count(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+}
@@ -0,0 +1,219 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Reloads entries in the background before they expire, for caches configured under app.cache.refresh.
+ * Only reads through @Cacheable(sync = true) are tracked, as those carry the loader needed to reload.
+ *
+ * A hit triggers a refresh when either
+ * - the entry is hot (min-hits reads since it was loaded) and less than the 'ahead' fraction of its TTL remains, or
+ * - probabilistic early expiration (XFetch) fires: loadTime * beta * -ln(rand) >= remaining TTL, so entries that are
+ *   slow to load are refreshed earlier and the chance rises as expiry nears.
+ *
+ * Expiry is tracked per key on this node. For entries loaded here it is the earliest the jittered Redis TTL allows;
+ * for entries loaded elsewhere it is read from Redis (PTTL) once the key turns hot. Before reloading, the Redis TTL
+ * is checked again, so a key another node already refreshed is not loaded twice.
+ */
+@Slf4j
+public class RefreshAheadCache implements Cache {
+
+    private final Cache target;
+    private final TwoTierCacheProperties.Refresh spec;
+    private final long ttlMillis;
+    private final String redisKeyPrefix;
+    private final CacheRefresher refresher;
+    private final com.github.benmanes.caffeine.cache.Cache<String, EntryState> entries;
+
+    // Moving average of load times, used for XFetch on entries this node did not load itself
+    private volatile long typicalLoadMillis = 1;
+
+    private static final class EntryState {
+        volatile long expiresAt;   // epoch millis, 0 = not known yet
+        volatile long loadMillis;
+        final AtomicLong hits = new AtomicLong();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+
+    public RefreshAheadCache(Cache target, TwoTierCacheProperties.Refresh spec, Duration ttl,
+                             String redisKeyPrefix, CacheRefresher refresher) {
+        this.target = target;
+        this.spec = spec;
+        this.ttlMillis = ttl.toMillis();
+        this.redisKeyPrefix = redisKeyPrefix;
+        this.refresher = refresher;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxTracked())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String trackedKey = key.toString();
+        AtomicBoolean loadedHere = new AtomicBoolean();
+        T value = target.get(key, () -> {
+            long start = System.currentTimeMillis();
+            T loaded = valueLoader.call();
+            loadedHere.set(true);
+            track(trackedKey, start);
+            return loaded;
+        });
+
+        if (value != null && !loadedHere.get()) {
+            onHit(key, trackedKey, valueLoader);
+        }
+        return value;
+    }
+
+    private void onHit(Object key, String trackedKey, Callable<?> valueLoader) {
+        EntryState state = entries.get(trackedKey, k -> new EntryState());
+        long hits = state.hits.incrementAndGet();
+        long now = System.currentTimeMillis();
+
+        if (state.expiresAt == 0) {
+            // Loaded by another node (or before a restart): look the expiry up once the key is hot
+            if (hits >= spec.getMinHits() && state.refreshing.compareAndSet(false, true)) {
+                submit(state, () -> learnExpiry(trackedKey, state));
+            }
+            return;
+        }
+
+        long remaining = state.expiresAt - now;
+        boolean hotAndDue = hits >= spec.getMinHits() && remaining <= ttlMillis * spec.getAhead();
+        boolean early = spec.getBeta() > 0
+                && state.loadMillis * spec.getBeta() * -Math.log(1 - ThreadLocalRandom.current().nextDouble()) >= remaining;
+
+        if ((hotAndDue || early) && state.refreshing.compareAndSet(false, true)) {
+            submit(state, () -> refresh(key, trackedKey, state, valueLoader));
+        }
+    }
+
+    private void submit(EntryState state, Runnable task) {
+        if (!refresher.submit(task)) {
+            state.refreshing.set(false);
+        }
+    }
+
+    private void learnExpiry(String trackedKey, EntryState state) {
+        try {
+            long remaining = refresher.remainingMillis(redisKeyPrefix + trackedKey);
+            if (remaining > 0) {
+                state.loadMillis = typicalLoadMillis;
+                state.expiresAt = System.currentTimeMillis() + remaining;
+            }
+        } finally {
+            state.refreshing.set(false);
+        }
+    }
+
+    private void refresh(Object key, String trackedKey, EntryState state, Callable<?> valueLoader) {
+        try {
+            // Our expiry is a lower bound: the real one is at most jitter * TTL later. Anything beyond that
+            // means another node already reloaded the entry.
+            long remaining = refresher.remainingMillis(redisKeyPrefix + trackedKey);
+            long now = System.currentTimeMillis();
+            if (remaining > 0 && now + remaining > state.expiresAt + (long) (ttlMillis * spec.getJitter()) + 1000) {
+                state.expiresAt = now + remaining;
+                state.hits.set(0);
+                return;
+            }
+
+            long start = System.currentTimeMillis();
+            Object loaded = valueLoader.call();
+            // An eviction while we were loading means the loaded value may already be stale - leave the key empty
+            if (loaded != null && target.get(key) != null) {
+                target.put(key, loaded);
+                track(trackedKey, start);
+                log.debug("Refreshed {}::{} ahead of expiry", getName(), trackedKey);
+            }
+        } catch (Exception e) {
+            log.warn("Background refresh of {}::{} failed: {}", getName(), trackedKey, e.getMessage());
+        } finally {
+            state.refreshing.set(false);
+        }
+    }
+
+    private void track(String trackedKey, long loadStart) {
+        long now = System.currentTimeMillis();
+        EntryState state = new EntryState();
+        state.loadMillis = Math.max(1, now - loadStart);
+        state.expiresAt = now + (long) (ttlMillis * (1 - spec.getJitter()));
+        entries.put(trackedKey, state);
+        typicalLoadMillis = (typicalLoadMillis * 7 + state.loadMillis) / 8;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return target.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return target.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        target.evict(key);
+        entries.invalidate(key.toString());
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        entries.invalidate(key.toString());
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+        entries.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        entries.invalidateAll();
+        return target.invalidate();
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-key request coalescing for cache misses (@Cacheable(sync = true)).
+ *
+ * On this node, the first caller for a key runs the loader and concurrent callers for the same key
+ * wait for its result instead of querying Mongo themselves. Different keys never wait on each other.
+ *
+ * With app.cache.single-flight.distributed=true the loader additionally takes a short Redis lock
+ * (SET NX PX, ecommerce:lock:<cache>::<key>), so one node loads per key across the cluster; nodes that
+ * lose the race poll the shared cache until the value appears, and load anyway once wait-timeout passes
+ * or if Redis is unavailable - the lock only saves work, it never blocks a request for good.
+ */
+@Slf4j
+@Component
+public class SingleFlight {
+
+    private static final String LOCK_PREFIX = "ecommerce:lock:";
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TwoTierCacheProperties.SingleFlight settings;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(StringRedisTemplate redisTemplate, TwoTierCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.settings = properties.getSingleFlight();
+    }
+
+    /**
+     * @param flightKey  cache name and key, unique across caches
+     * @param load       re-checks the cache, else runs the real loader and stores its result
+     * @param sharedRead reads the shared (Redis) tier; polled while another node holds the lock
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String flightKey, Callable<T> load, Supplier<Cache.ValueWrapper> sharedRead) throws Exception {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, mine);
+        if (leader != null) {
+            return (T) await(leader);
+        }
+
+        try {
+            T value = settings.isDistributed() ? loadWithLock(flightKey, load, sharedRead) : load.call();
+            mine.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    private <T> T loadWithLock(String flightKey, Callable<T> load, Supplier<Cache.ValueWrapper> sharedRead)
+            throws Exception {
+        String lockKey = LOCK_PREFIX + flightKey;
+        String token = UUID.randomUUID().toString();
+
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, settings.getLockTtl());
+        } catch (RuntimeException e) {
+            log.debug("Single-flight lock unavailable for {}, loading locally: {}", flightKey, e.getMessage());
+            return load.call();
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return load.call();
+            } finally {
+                release(lockKey, token);
+            }
+        }
+
+        // Another node is loading this key: wait for its result to land in the shared tier
+        long deadline = System.nanoTime() + settings.getWaitTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(settings.getPollInterval().toMillis());
+            Cache.ValueWrapper shared = sharedRead.get();
+            if (shared != null && shared.get() != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) shared.get();
+                return value;
+            }
+        }
+        log.debug("Single-flight wait for {} timed out, loading locally", flightKey);
+        return load.call();
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            log.debug("Could not release single-flight lock {} (expires on its own): {}", lockKey, e.getMessage());
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader) throws Exception {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache with a bounded in-process L1 (Caffeine) in front of a Redis L2.
+ * L1 hits skip both the Redis round trip and JSON deserialization.
+ * Writes and evictions go to Redis first, then L1, then are broadcast so other nodes drop their L1 copy.
+ *
+ * An L1 fill from a Redis read is dropped if the key was evicted, written or cleared after that read started,
+ * so a read overlapping an evict cannot put the old value back into L1 for the whole L1 TTL. Invalidations are
+ * numbered from one sequence and the last number per key is kept for a while; fills compare against it under
+ * the key's Caffeine lock, the same lock invalidations take.
+ */
+public class TwoTierCache implements Cache, CacheInvalidationBus.LocalInvalidationListener {
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final AtomicLong invalidations = new AtomicLong();
+    // Key -> number of its last invalidation; once dropped from here, the floor covers it
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> invalidatedAt;
+    private final AtomicLong forgottenInvalidations = new AtomicLong();
+    private volatile long clearedAt;
+    private final CacheInvalidationBus invalidationBus;
+    private final SingleFlight singleFlight;
+
+    public TwoTierCache(Cache remote, TwoTierCacheProperties.Local spec, CacheInvalidationBus invalidationBus,
+                        SingleFlight singleFlight) {
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.singleFlight = singleFlight;
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaxWeight())
+                .weigher((String key, Object value) -> weigh(value))
+                .expireAfterWrite(spec.getTtl())
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxWeight())
+                .expireAfterWrite(spec.getTtl())
+                .evictionListener((String key, Long number, RemovalCause cause) ->
+                        forgottenInvalidations.accumulateAndGet(number, Math::max))
+                .build();
+        invalidationBus.register(remote.getName(), this);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        long readStart = invalidations.get();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            fillLocal(localKey, wrapper.get(), readStart);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        long readStart = invalidations.get();
+        ValueWrapper shared = remote.get(key);
+        if (shared != null && shared.get() != null) {
+            fillLocal(localKey, shared.get(), readStart);
+            return (T) shared.get();
+        }
+
+        // Miss on both tiers: one loader per key, concurrent callers wait for its result
+        try {
+            return singleFlight.load(getName() + "::" + localKey, () -> {
+                long recheckStart = invalidations.get();
+                ValueWrapper current = remote.get(key);
+                if (current != null && current.get() != null) {
+                    fillLocal(localKey, current.get(), recheckStart);
+                    return (T) current.get();
+                }
+                T loaded = valueLoader.call();
+                if (loaded != null) {
+                    put(key, loaded);
+                }
+                return loaded;
+            }, () -> remote.get(key));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    // --- async variants, used by @Cacheable methods returning Mono/Flux (reactive read API) ---
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+
+        long readStart = invalidations.get();
+        CompletableFuture<?> remoteValue = remote.retrieve(key);
+        if (remoteValue == null) {
+            return null;
+        }
+        return remoteValue.thenApply(result -> {
+            Object loaded = result instanceof ValueWrapper wrapper ? wrapper.get() : result;
+            if (loaded != null) {
+                fillLocal(localKey, loaded, readStart);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return CompletableFuture.completedFuture((T) value);
+        }
+
+        long readStart = invalidations.get();
+        return remote.retrieve(key, valueLoader).thenApply(loaded -> {
+            if (loaded != null) {
+                fillLocal(localKey, loaded, readStart);
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = key.toString();
+        // Also an invalidation: a read that started before this write must not replace the new value
+        local.asMap().compute(localKey, (k, previous) -> {
+            invalidatedAt.put(k, invalidations.incrementAndGet());
+            return value;
+        });
+        invalidationBus.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = key.toString();
+        invalidateLocal(localKey);
+        invalidationBus.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateAllLocal();
+        invalidationBus.publishClear(getName());
+    }
+
+    // --- invalidations received from other nodes ---
+
+    @Override
+    public void evictLocal(String key) {
+        invalidateLocal(key);
+    }
+
+    @Override
+    public void clearLocal() {
+        invalidateAllLocal();
+    }
+
+    private void invalidateLocal(String key) {
+        local.asMap().compute(key, (k, previous) -> {
+            invalidatedAt.put(k, invalidations.incrementAndGet());
+            return null;
+        });
+    }
+
+    private void invalidateAllLocal() {
+        clearedAt = invalidations.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    // Stores a value read from Redis unless the key was invalidated after the read started
+    private void fillLocal(String key, Object value, long readStart) {
+        local.asMap().compute(key, (k, previous) -> {
+            Long keyInvalidated = invalidatedAt.getIfPresent(k);
+            long lastInvalidation = Math.max(keyInvalidated != null ? keyInvalidated : 0L,
+                    Math.max(clearedAt, forgottenInvalidations.get()));
+            return lastInvalidation > readStart ? previous : value;
+        });
+    }
+
+    // Pages and lists weigh by element count so a few large pages cannot crowd out everything else
+    static int weigh(Object value) {
+        if (value instanceof PageResponse<?> page && page.getContent() != null) {
+            return 1 + page.getContent().size();
+        }
+        if (value instanceof Collection<?> collection) {
+            return 1 + collection.size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager that fronts the Redis caches with an in-process L1 for every cache
+ * configured under app.cache.local; other caches are served straight from Redis.
+ * Either way, misses loaded through @Cacheable(sync = true) are coalesced per key (SingleFlight),
+ * and caches configured under app.cache.refresh reload hot entries ahead of expiry (RefreshAheadCache).
+ * Every cache is metered (MeteredCache) and its Redis round trips are timed (TimedCache).
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final TwoTierCacheProperties properties;
+    private final CacheInvalidationBus invalidationBus;
+    private final SingleFlight singleFlight;
+    private final CacheRefresher refresher;
+    private final Map<String, Duration> ttls;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               TwoTierCacheProperties properties,
+                               CacheInvalidationBus invalidationBus,
+                               SingleFlight singleFlight,
+                               CacheRefresher refresher,
+                               Map<String, Duration> ttls,
+                               MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+        this.singleFlight = singleFlight;
+        this.refresher = refresher;
+        this.ttls = ttls;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+
+        Cache timedRemote = new TimedCache(remote, meterRegistry);
+        TwoTierCacheProperties.Local spec = properties.getLocal().get(name);
+        Cache cache = spec != null
+                ? new TwoTierCache(timedRemote, spec, invalidationBus, singleFlight)
+                : new CoalescingCache(timedRemote, singleFlight);
+
+        TwoTierCacheProperties.Refresh refresh = properties.getRefresh().get(name);
+        Duration ttl = ttls.get(name);
+        if (refresh != null && ttl != null && remote instanceof RedisCache redisCache) {
+            String keyPrefix = redisCache.getCacheConfiguration().getKeyPrefixFor(name);
+            cache = new RefreshAheadCache(cache, refresh, ttl, keyPrefix, refresher);
+        }
+        return new MeteredCache(cache, meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-cache settings under app.cache:
+ * - local.<cacheName>.*: sizing of the in-process L1 tier; caches without an entry are served straight from Redis
+ * - codec.<cacheName>: Redis value codec (json or binary), json when absent
+ * - single-flight.*: coalescing of concurrent misses on the same key (see SingleFlight)
+ * - refresh.<cacheName>.*: TTL jitter and background refresh of hot entries (see RefreshAheadCache);
+ *   caches without an entry keep a fixed TTL and are only reloaded on a miss
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class TwoTierCacheProperties {
+
+    private Map<String, Local> local = new HashMap<>();
+
+    private Map<String, Codec> codec = new HashMap<>();
+
+    private SingleFlight singleFlight = new SingleFlight();
+
+    private Map<String, Refresh> refresh = new HashMap<>();
+
+    // Threads reloading entries in the background, shared by all caches
+    private int refreshWorkers = 2;
+
+    public enum Codec { JSON, BINARY }
+
+    @Data
+    public static class Local {
+        // Total weight: 1 per entry plus 1 per element of a cached page/list
+        private long maxWeight = 10_000;
+
+        // Kept short - cross-node invalidation is best effort, this bounds staleness if a message is lost
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class SingleFlight {
+        // Also coalesce across nodes with a short Redis lock per key
+        private boolean distributed = false;
+
+        // Lock expiry - bounds how long a crashed loader can hold other nodes back
+        private Duration lockTtl = Duration.ofSeconds(5);
+
+        // How long a node that lost the lock waits for the winner's value before loading itself
+        private Duration waitTimeout = Duration.ofSeconds(3);
+
+        private Duration pollInterval = Duration.ofMillis(25);
+    }
+
+    @Data
+    public static class Refresh {
+        // Up to this fraction of the TTL is shaved off each Redis entry at random, so keys written together expire apart
+        private double jitter = 0.1;
+
+        // A hot entry is reloaded in the background once less than this fraction of its TTL remains
+        private double ahead = 0.2;
+
+        // Reads since the entry was loaded for it to count as hot
+        private int minHits = 10;
+
+        // Probabilistic early expiration (XFetch): higher refreshes earlier, 0 disables
+        private double beta = 1.0;
+
+        // Keys whose hits and expiry are tracked on this node
+        private long maxTracked = 10_000;
+    }
+}
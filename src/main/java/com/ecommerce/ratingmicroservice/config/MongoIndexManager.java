@@ -0,0 +1,245 @@
+package com.ecommerce.ratingmicroservice.config;
+
+import com.ecommerce.ratingmicroservice.entity.EmailOutbox;
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.entity.User;
+import com.ecommerce.ratingmicroservice.repository.RepositoryQueryShapes;
+import com.ecommerce.ratingmicroservice.repository.RepositoryQueryShapes.Shape;
+import com.ecommerce.ratingmicroservice.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes backing the repository query shapes at startup and verifies them with explain():
+ * every repository method has an entry in RepositoryQueryShapes, built by the same code (or, for derived and
+ * @Query finders, the same Spring Data query construction) that builds the query it sends.
+ *
+ * Reviews reference products/users through DBRefs; the custom fragments and @Query finders filter on
+ * 'product.$id' / 'user.$id' and the indexes below are keyed on those paths. Derived finders
+ * (findByProduct_Id..., findByUser_Id...) are mapped by Spring Data to a match on the whole DBRef, which
+ * is what explain() sees here too.
+ * Entity-level index annotations (products, users, email_outbox) are also applied here because
+ * Spring Boot leaves auto-index-creation off.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MongoIndexManager implements ApplicationRunner {
+
+    public enum VerificationMode { OFF, WARN, FAIL }
+
+    private static final String REVIEWS = "reviews";
+
+    /** One review per user per product; ReviewImportService relies on it to reject duplicates. */
+    public static final String REVIEW_PRODUCT_USER_UNIQUE_INDEX = "review_product_user_unique_idx";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Value("${app.mongo.index-verification:WARN}")
+    private VerificationMode verificationMode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        createIndexes();
+        if (verificationMode != VerificationMode.OFF) {
+            verifyQueryPlans();
+        }
+    }
+
+    // --- index declarations ---
+
+    static List<IndexDefinition> reviewIndexes() {
+        return List.of(
+                // findByProduct_IdAndStatus(+OrderByCreatedAtDesc, Pageable), findByProductAfter,
+                // countByProduct_IdAndStatus, computeApprovedRatingTotals
+                new Index()
+                        .named("review_product_status_created_idx")
+                        .on("product.$id", Sort.Direction.ASC)
+                        .on("status", Sort.Direction.ASC)
+                        .on("created_at", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC),
+                // findByUser_IdAndStatusOrderByCreatedAtDesc
+                new Index()
+                        .named("review_user_status_created_idx")
+                        .on("user.$id", Sort.Direction.ASC)
+                        .on("status", Sort.Direction.ASC)
+                        .on("created_at", Sort.Direction.DESC),
+                // findByUser_IdOrderByCreatedAtDesc - no status predicate, so the index above would need an
+                // in-memory SORT across statuses
+                new Index()
+                        .named("review_user_created_idx")
+                        .on("user.$id", Sort.Direction.ASC)
+                        .on("created_at", Sort.Direction.DESC),
+                // existsByProduct_IdAndUser_Id, findByProduct_IdAndUser_Id - one review per user per product
+                new Index()
+                        .named(REVIEW_PRODUCT_USER_UNIQUE_INDEX)
+                        .on("product.$id", Sort.Direction.ASC)
+                        .on("user.$id", Sort.Direction.ASC)
+                        .unique(),
+                // updateUsernameSnapshot
+                new Index()
+                        .named("review_user_snapshot_idx")
+                        .on("user_id", Sort.Direction.ASC),
+                // ExportService incremental exports (updated_at >= since)
+                new Index()
+                        .named("review_updated_at_idx")
+                        .on("updated_at", Sort.Direction.ASC)
+        );
+    }
+
+    private void createIndexes() {
+        IndexOperations reviewOps = mongoTemplate.indexOps(REVIEWS);
+        for (IndexDefinition index : reviewIndexes()) {
+            ensure(reviewOps, index, REVIEWS);
+        }
+
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (Class<?> type : List.of(Product.class, User.class, EmailOutbox.class)) {
+            IndexOperations ops = mongoTemplate.indexOps(type);
+            for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+                ensure(ops, index, mongoTemplate.getCollectionName(type));
+            }
+        }
+    }
+
+    private void ensure(IndexOperations ops, IndexDefinition index, String collection) {
+        try {
+            String name = ops.createIndex(index);
+            log.debug("Ensured index {} on {}", name, collection);
+        } catch (RuntimeException e) {
+            // e.g. existing duplicates prevent a unique index, or an index with the same keys but different options
+            handle("Could not create index " + index.getIndexKeys().toJson() + " on " + collection, e);
+        }
+    }
+
+    // --- explain() verification ---
+
+    /**
+     * Every repository query (RepositoryQueryShapes) plus the incremental exports, each built the way
+     * the code that runs it builds it, so a changed finder is verified as it is actually sent.
+     */
+    static Map<String, Shape> queryShapes(MongoOperations operations) {
+        Map<String, Shape> shapes = new LinkedHashMap<>(RepositoryQueryShapes.all(operations));
+        LocalDateTime since = LocalDateTime.now();
+        shapes.put("ExportService.exportReviews",
+                new Shape(Review.class, ExportService.reviewsQuery(Review.Status.APPROVED, since), null));
+        shapes.put("ExportService.exportProducts",
+                new Shape(Product.class, ExportService.productsQuery(since), null));
+        return shapes;
+    }
+
+    private void verifyQueryPlans() {
+        Map<String, Shape> shapes;
+        try {
+            shapes = queryShapes(mongoTemplate);
+        } catch (RuntimeException e) {
+            // e.g. a finder Spring Data cannot build a query for with the sample arguments
+            handle("Could not build the repository query shapes", e);
+            return;
+        }
+
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        List<String> collectionScans = new ArrayList<>();
+        int verified = 0;
+
+        for (Map.Entry<String, Shape> entry : shapes.entrySet()) {
+            String method = entry.getKey();
+            Shape shape = entry.getValue();
+            if (!shape.expectsIndex()) {
+                log.debug("Query {} is not verified: {}", method, shape.scanReason());
+                continue;
+            }
+            try {
+                Document plan = explain(queryMapper, shape);
+                Object winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan");
+                if (containsStage(winningPlan, "COLLSCAN")) {
+                    collectionScans.add(method);
+                } else {
+                    log.debug("Query {} uses an index", method);
+                }
+                verified++;
+            } catch (RuntimeException e) {
+                log.warn("Could not explain query {}: {}", method, e.getMessage());
+            }
+        }
+
+        if (!collectionScans.isEmpty()) {
+            handle("Queries planned as COLLSCAN: " + collectionScans, null);
+        } else {
+            log.info("Verified {} repository query shapes against indexes", verified);
+        }
+    }
+
+    // Maps property names to stored field names the same way MongoTemplate does before sending the query
+    private Document explain(QueryMapper queryMapper, Shape shape) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(shape.type());
+        Query query = shape.query();
+
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document fields = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+        if (entity.hasTextScoreProperty() && !filter.containsKey("$text")) {
+            // The text score is only projected for $text queries; outside them the server rejects it
+            fields.remove(entity.getTextScoreProperty().getFieldName());
+        }
+
+        var find = mongoTemplate.getCollection(mongoTemplate.getCollectionName(shape.type()))
+                .find(filter)
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .projection(fields);
+        if (query.isLimited()) {
+            find = find.limit(query.getLimit());
+        }
+        if (query.getSkip() > 0) {
+            find = find.skip((int) query.getSkip());
+        }
+        return find.explain();
+    }
+
+    // Walks the (possibly nested, possibly SBE-wrapped) plan tree looking for a stage
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    private void handle(String message, RuntimeException cause) {
+        if (verificationMode == VerificationMode.FAIL) {
+            throw new IllegalStateException(message, cause);
+        }
+        log.warn(message, cause);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.ratingmicroservice.config;
+
+import com.ecommerce.ratingmicroservice.timing.MongoCommandMonitor;
+import com.ecommerce.ratingmicroservice.timing.TimedDbRefResolver;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Feeds Mongo command and DBRef lookup times into the per-request Server-Timing breakdown,
+ * query budget and query-shape statistics.
+ */
+@Configuration
+public class MongoTimingConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMonitorCustomizer(MongoCommandMonitor monitor) {
+        return settings -> settings.addCommandListener(monitor);
+    }
+
+    /**
+     * Same converter Spring Boot would create, with a DBRef resolver that records its lookups
+     */
+    @Bean
+    public MappingMongoConverter mappingMongoConverter(MongoDatabaseFactory factory,
+                                                       MongoMappingContext context,
+                                                       MongoCustomConversions conversions) {
+        MappingMongoConverter converter = new MappingMongoConverter(new TimedDbRefResolver(factory), context);
+        converter.setCustomConversions(conversions);
+        return converter;
+    }
+}
@@ -1,34 +1,122 @@
 package com.ecommerce.ratingmicroservice.config;
 
+import com.ecommerce.ratingmicroservice.cache.CacheInvalidationBus;
+import com.ecommerce.ratingmicroservice.cache.CacheRefresher;
+import com.ecommerce.ratingmicroservice.cache.CompactCacheValueSerializer;
+import com.ecommerce.ratingmicroservice.cache.SingleFlight;
+import com.ecommerce.ratingmicroservice.cache.TwoTierCacheManager;
+import com.ecommerce.ratingmicroservice.cache.TwoTierCacheProperties;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 /**
  * Redis caching configuration for Spring Boot 3.x
  * Uses GenericJackson2JsonRedisSerializer with safe type handling.
  * Application will start even if Redis is unavailable.
+ * Caches listed under app.cache.local get an in-process L1 tier in front of Redis.
+ * Caches set to binary under app.cache.codec use CompactCacheValueSerializer instead of JSON.
+ * Caches listed under app.cache.refresh get a jittered TTL and are refreshed ahead of expiry.
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(TwoTierCacheProperties.class)
 public class RedisConfig {
 
+    // Base TTL per cache
+    private static final Map<String, Duration> CACHE_TTLS = Map.of(
+            "products", Duration.ofHours(1),
+            "productSearch", Duration.ofMinutes(15),
+            "productList", Duration.ofMinutes(10),
+            "reviews", Duration.ofMinutes(30),
+            "reviewsByProduct", Duration.ofMinutes(20),
+            "reviewsByUser", Duration.ofMinutes(15)
+    );
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     TwoTierCacheProperties twoTierCacheProperties,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     SingleFlight singleFlight,
+                                     CacheRefresher cacheRefresher,
+                                     MeterRegistry meterRegistry) {
+        RedisSerializer<Object> jsonSerializer = jsonValueSerializer();
+        RedisSerializer<Object> binarySerializer = new CompactCacheValueSerializer(jsonSerializer);
+
+        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith("ecommerce:")
+                .entryTtl(Duration.ofMinutes(30)) // Default TTL: 30 minutes
+                .serializeKeysWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                new StringRedisSerializer()
+                        )
+                )
+                .serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer)
+                )
+                .disableCachingNullValues();
+
+        // Value codec per cache (app.cache.codec.<cacheName>: json | binary), JSON by default
+        Function<String, RedisCacheConfiguration> configFor = name ->
+                twoTierCacheProperties.getCodec().get(name) == TwoTierCacheProperties.Codec.BINARY
+                        ? cacheConfig.serializeValuesWith(
+                                RedisSerializationContext.SerializationPair.fromSerializer(binarySerializer))
+                        : cacheConfig;
+
+        // Specific cache configurations
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfig);
+        CACHE_TTLS.forEach((name, ttl) -> builder.withCacheConfiguration(name,
+                configFor.apply(name).entryTtl(ttlFunction(ttl, twoTierCacheProperties.getRefresh().get(name)))));
+        RedisCacheManager redisCacheManager = builder.build();
+        // Not a bean itself, so load the per-cache configurations explicitly
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, twoTierCacheProperties, cacheInvalidationBus,
+                singleFlight, cacheRefresher, CACHE_TTLS, meterRegistry);
+    }
+
+    /**
+     * Fixed TTL, or a TTL shortened by a random share of up to refresh.jitter so that entries
+     * written in the same burst do not all expire in the same second.
+     */
+    private static RedisCacheWriter.TtlFunction ttlFunction(Duration ttl, TwoTierCacheProperties.Refresh refresh) {
+        if (refresh == null || refresh.getJitter() <= 0) {
+            return RedisCacheWriter.TtlFunction.just(ttl);
+        }
+        long ttlMillis = ttl.toMillis();
+        double jitter = refresh.getJitter();
+        return (key, value) -> Duration.ofMillis(
+                (long) (ttlMillis * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+    }
+
+    /**
+     * JSON value serializer used for caches on the json codec and as fallback of the binary codec
+     */
+    public static GenericJackson2JsonRedisSerializer jsonValueSerializer() {
         // Configure ObjectMapper for safe Redis serialization
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -49,37 +137,19 @@ public class RedisConfig {
                 JsonTypeInfo.As.PROPERTY
         );
 
-        GenericJackson2JsonRedisSerializer serializer =
-                new GenericJackson2JsonRedisSerializer(objectMapper);
-
-        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .prefixCacheNameWith("ecommerce:")
-                .entryTtl(Duration.ofMinutes(30)) // Default TTL: 30 minutes
-                .serializeKeysWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(
-                                new StringRedisSerializer()
-                        )
-                )
-                .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)
-                )
-                .disableCachingNullValues();
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(cacheConfig)
-                // Specific cache configurations
-                .withCacheConfiguration("products",
-                        cacheConfig.entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("productSearch",
-                        cacheConfig.entryTtl(Duration.ofMinutes(15)))
-                .withCacheConfiguration("productList",
-                        cacheConfig.entryTtl(Duration.ofMinutes(10)))
-                .withCacheConfiguration("reviews",
-                        cacheConfig.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("reviewsByProduct",
-                        cacheConfig.entryTtl(Duration.ofMinutes(20)))
-                .withCacheConfiguration("reviewsByUser",
-                        cacheConfig.entryTtl(Duration.ofMinutes(15)))
-                .build();
+    /**
+     * Subscribes this node to L1 invalidations broadcast by other nodes
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
     }
 }
\ No newline at end of file
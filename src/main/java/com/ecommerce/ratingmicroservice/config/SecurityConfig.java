@@ -1,6 +1,8 @@
 package com.ecommerce.ratingmicroservice.config;
 
 import com.ecommerce.ratingmicroservice.security.JwtAuthenticationFilter;
+import com.ecommerce.ratingmicroservice.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,17 +41,30 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers("/api/auth/me").authenticated()
 
+                        // ---------- ACTUATOR ----------
+                        // Actuator only listens on management.server.port; this chain applies there as well
+                        .requestMatchers("/actuator/health/**", "/livez", "/readyz").permitAll()
+                        // Scraped without credentials - only reachable on the internal management port
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // ---------- PRODUCTS ----------
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("ADMIN")
 
+                        // ---------- REACTIVE READ API ----------
+                        .requestMatchers(HttpMethod.GET, "/api/read/**").permitAll()
+
                         // ---------- REVIEWS ----------
                         .requestMatchers(HttpMethod.GET, "/api/reviews/product/{productId}").permitAll()
                         .requestMatchers("/api/reviews/**").authenticated()
                         .requestMatchers(HttpMethod.PATCH, "/api/reviews/**/moderate").hasAnyRole("MODERATOR", "ADMIN")
 
+                        // ---------- ADMIN BULK OPERATIONS ----------
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                         // ---------- USERS / ADMIN MANAGEMENT ----------
                         .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN") // list users
                         .requestMatchers("/api/users/**").authenticated() // self + admin
@@ -62,8 +77,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,61 @@
+package com.ecommerce.ratingmicroservice.controller;
+
+import com.ecommerce.ratingmicroservice.service.CacheWarmUp;
+import com.ecommerce.ratingmicroservice.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Admin-only bulk endpoints for products.
+ */
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminProductController {
+
+    private final ExportService exportService;
+    private final CacheWarmUp cacheWarmUp;
+
+    /**
+     * Export products (with rating counters) as NDJSON streamed from a Mongo cursor
+     *
+     * Example usage:
+     * GET /api/admin/products/export?updatedSince=2024-01-01T00:00:00&gzip=true
+     *
+     * @param updatedSince Only products changed at or after this time, for incremental exports (optional)
+     * @param gzip Compress the download
+     * @return products.ndjson or products.ndjson.gz
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return NdjsonExport.download("products", gzip,
+                out -> exportService.exportProducts(updatedSince, out));
+    }
+
+    /**
+     * Re-run the startup cache warm-up, e.g. after a Redis flush
+     *
+     * Example usage:
+     * POST /api/admin/products/cache/warm-up
+     *
+     * @return Number of cache entries loaded
+     */
+    @PostMapping("/cache/warm-up")
+    public ResponseEntity<Map<String, Integer>> warmUpCache() {
+        return ResponseEntity.ok(Map.of("loaded", cacheWarmUp.warmUp()));
+    }
+}
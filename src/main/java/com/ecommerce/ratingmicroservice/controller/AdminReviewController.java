@@ -0,0 +1,69 @@
+package com.ecommerce.ratingmicroservice.controller;
+
+import com.ecommerce.ratingmicroservice.dto.response.ReviewImportResponse;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.service.ExportService;
+import com.ecommerce.ratingmicroservice.service.ReviewImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Admin-only bulk endpoints for migrating review data in and out.
+ */
+@RestController
+@RequestMapping("/api/admin/reviews")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminReviewController {
+
+    private final ReviewImportService reviewImportService;
+    private final ExportService exportService;
+
+    /**
+     * Import reviews from NDJSON, one review per line
+     * The body is streamed, so files of any size can be posted
+     *
+     * Example usage:
+     * curl -X POST -H "Content-Type: application/x-ndjson" --data-binary @reviews.ndjson /api/admin/reviews/import
+     *
+     * @param body Raw request body
+     * @return Counts and per-line errors (line numbers are 1-based)
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/json", "text/plain"})
+    public ResponseEntity<ReviewImportResponse> importReviews(InputStream body) throws IOException {
+        ReviewImportResponse response = reviewImportService.importReviews(body);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export reviews as NDJSON streamed from a Mongo cursor
+     *
+     * Example usage:
+     * GET /api/admin/reviews/export?status=APPROVED&updatedSince=2024-01-01T00:00:00&gzip=true
+     *
+     * @param status Only reviews in this status (optional)
+     * @param updatedSince Only reviews updated at or after this time, for incremental exports (optional)
+     * @param gzip Compress the download
+     * @return reviews.ndjson or reviews.ndjson.gz
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @RequestParam(required = false) Review.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return NdjsonExport.download("reviews", gzip,
+                out -> exportService.exportReviews(status, updatedSince, out));
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.ratingmicroservice.controller;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds NDJSON download responses for the admin export endpoints, optionally gzip-compressed.
+ * The body is written on the MVC async executor after the handler returns.
+ */
+final class NdjsonExport {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private NdjsonExport() {}
+
+    static ResponseEntity<StreamingResponseBody> download(String name, boolean gzip, StreamingResponseBody body) {
+        String filename = name + (gzip ? ".ndjson.gz" : ".ndjson");
+
+        StreamingResponseBody stream = !gzip ? body : out -> {
+            // finish() rather than close(): the container owns the response stream
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER);
+            body.writeTo(compressed);
+            compressed.finish();
+            compressed.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(stream);
+    }
+
+}
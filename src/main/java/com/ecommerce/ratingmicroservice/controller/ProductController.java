@@ -3,6 +3,9 @@ package com.ecommerce.ratingmicroservice.controller;
 import com.ecommerce.ratingmicroservice.dto.request.ProductRequest;
 import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
 import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.RatingSummaryResponse;
+import com.ecommerce.ratingmicroservice.pagination.CountMode;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
 import com.ecommerce.ratingmicroservice.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,8 @@ import java.net.URI;
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String RELEVANCE = "relevance";
+
     private final ProductService productService;
 
     @PostMapping
@@ -55,42 +60,82 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Star histogram (1..5), average and count of approved reviews
+     */
+    @GetMapping("/{id}/rating-summary")
+    public ResponseEntity<RatingSummaryResponse> getRatingSummary(@PathVariable String id) {
+        RatingSummaryResponse response = productService.getRatingSummary(id);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Paged product listing
+     * count=exact (default) counts all products for totalElements/totalPages;
+     * count=none skips the count (totals are -1, use "last" for infinite scroll);
+     * count=approximate skips the count and reports the estimated collection size
+     *
+     * Offset mode: ?page=0&size=10&sortBy=price&direction=desc
+     * Cursor mode: ?after=<nextCursor from previous response>&size=10 (constant cost for deep pages)
+     * nextCursor is returned when sortBy is price, averageRating, name or id (ties broken by id);
+     * in cursor mode the order is taken from the cursor
+     */
     @GetMapping
     public ResponseEntity<PageResponse<ProductResponse>> getAllProducts(
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "exact") String count) {
+
+        if (after != null) {
+            return ResponseEntity.ok(productService.getProductsAfter(after, size));
+        }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        Sort sort = ProductSortKey.fromProperty(sortBy)
+                .map(sortKey -> sortKey.sort(sortDirection))
+                .orElseGet(() -> Sort.by(sortDirection, sortBy));
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        PageResponse<ProductResponse> response = productService.getAllProducts(pageable);
+        PageResponse<ProductResponse> response = productService.getAllProducts(pageable, CountMode.parse(count));
         return ResponseEntity.ok(response);
     }
 
     /**
      * Flexible search endpoint
      * Examples:
+     * - /search?q=wireless+headphones&minPrice=50 (full-text, most relevant first)
      * - /search?name=phone&category=electronics&minPrice=100&maxPrice=500
      * - /search?page=0&size=20&sortBy=price&direction=desc
+     * - /search?q=phone&count=none (no count query; totals are -1)
+     *
+     * count=exact (default) | none | approximate (total cached per filter, may lag recent writes)
+     * sortBy defaults to relevance when q is given and to name otherwise
      */
     @GetMapping("/search")
     public ResponseEntity<PageResponse<ProductResponse>> searchProducts(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "exact") String count) {
 
-        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
+        boolean textSearch = q != null && !q.isBlank();
+        String sortField = sortBy != null ? sortBy : (textSearch ? RELEVANCE : "name");
+        Sort sort = textSearch && RELEVANCE.equals(sortField)
+                ? Sort.unsorted()
+                : Sort.by(Sort.Direction.fromString(direction), sortField);
         Pageable pageable = PageRequest.of(page, size, sort);
 
         PageResponse<ProductResponse> response = productService.searchProducts(
-                name, category, minPrice, maxPrice, pageable
+                q, name, category, minPrice, maxPrice, pageable, CountMode.parse(count)
         );
         return ResponseEntity.ok(response);
     }
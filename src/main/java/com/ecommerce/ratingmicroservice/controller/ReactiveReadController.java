@@ -0,0 +1,101 @@
+package com.ecommerce.ratingmicroservice.controller;
+
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import com.ecommerce.ratingmicroservice.service.ReactiveReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking public read API for product and review browsing, served next to the MVC endpoints.
+ * Handlers return Mono, so the request thread is released while Redis/Mongo are in flight
+ * (servlet async) and the response is written when the result arrives.
+ *
+ * Responses have the same shape as /api/products and /api/reviews, but pages are count-free
+ * slices (totalElements/totalPages are -1) and listing only sorts by price, averageRating, name or id.
+ */
+@RestController
+@RequestMapping("/api/read")
+@RequiredArgsConstructor
+public class ReactiveReadController {
+
+    private static final String RELEVANCE = "relevance";
+
+    private final ReactiveReadService readService;
+
+    @GetMapping("/products/{id}")
+    public Mono<ProductResponse> getProductById(@PathVariable String id) {
+        return readService.getProductById(id);
+    }
+
+    /**
+     * Offset mode: /products?page=0&size=10&sortBy=price&direction=desc
+     * Cursor mode: /products?after=<nextCursor>&size=10
+     */
+    @GetMapping("/products")
+    public Mono<PageResponse<ProductResponse>> getProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+        if (after != null) {
+            return readService.getProductsAfter(after, size);
+        }
+        return readService.getProducts(ProductSortKey.parse(sortBy), Sort.Direction.fromString(direction), page, size);
+    }
+
+    /**
+     * Same parameters as /api/products/search (q for full-text, name/category substring otherwise)
+     */
+    @GetMapping("/products/search")
+    public Mono<PageResponse<ProductResponse>> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        boolean textSearch = q != null && !q.isBlank();
+        String sortField = sortBy != null ? sortBy : (textSearch ? RELEVANCE : "name");
+        Sort sort = textSearch && RELEVANCE.equals(sortField)
+                ? Sort.unsorted()
+                : Sort.by(Sort.Direction.fromString(direction), sortField);
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        return readService.searchProducts(q, name, category, minPrice, maxPrice, pageable);
+    }
+
+    /**
+     * APPROVED reviews of a product, newest first
+     * Offset mode: ?page=0&size=10
+     * Cursor mode: ?after=<nextCursor>&size=10 (cursors are interchangeable with /api/reviews/product/{id})
+     */
+    @GetMapping("/reviews/product/{productId}")
+    public Mono<PageResponse<ReviewResponse>> getReviewsByProduct(
+            @PathVariable String productId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (after != null) {
+            return readService.getReviewsByProductAfter(productId, after, size);
+        }
+        return readService.getReviewsByProduct(productId, page, size);
+    }
+}
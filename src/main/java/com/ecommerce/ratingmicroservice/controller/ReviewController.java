@@ -1,6 +1,8 @@
 package com.ecommerce.ratingmicroservice.controller;
 
+import com.ecommerce.ratingmicroservice.dto.request.BulkModerationRequest;
 import com.ecommerce.ratingmicroservice.dto.request.ReviewRequest;
+import com.ecommerce.ratingmicroservice.dto.response.BulkModerationResponse;
 import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
 import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
 import com.ecommerce.ratingmicroservice.entity.Review;
@@ -84,19 +86,26 @@ public class ReviewController {
     }
 
     /**
-     * Get paginated reviews for a specific product
+     * Get paginated reviews for a specific product, newest first
      * Only shows APPROVED reviews to public
      * Results are cached for better performance
      *
+     * Offset mode: ?page=0&size=10
+     * Cursor mode: ?after=<nextCursor from previous response>&size=10 (constant cost for deep pages)
+     *
      * @param productId Product ID
-     * @param pageable Pagination parameters (page, size, sort)
+     * @param after Opaque cursor from a previous response's nextCursor (optional)
+     * @param pageable Pagination parameters (page, size)
      * @return Paginated list of approved reviews
      */
     @GetMapping("/product/{productId}")
     public ResponseEntity<PageResponse<ReviewResponse>> getReviewsByProduct(
             @PathVariable String productId,
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
-        PageResponse<ReviewResponse> reviews = reviewService.getReviewsByProduct(productId, pageable);
+        PageResponse<ReviewResponse> reviews = after != null
+                ? reviewService.getReviewsByProductAfter(productId, after, pageable.getPageSize())
+                : reviewService.getReviewsByProduct(productId, pageable);
         return ResponseEntity.ok(reviews);
     }
 
@@ -137,6 +146,27 @@ public class ReviewController {
         ReviewResponse response = reviewService.moderateReview(id, status);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Moderate up to 1000 reviews in one request
+     * Only MODERATOR or ADMIN can access this endpoint
+     * Missing or non-PENDING reviews are reported in "errors"; the rest are applied
+     *
+     * Example usage:
+     * PATCH /api/reviews/moderate
+     * { "items": [ { "reviewId": "abc123", "status": "APPROVED" },
+     *              { "reviewId": "def456", "status": "REJECTED" } ] }
+     *
+     * @param request Review ids and their target status
+     * @return Counts per outcome and per-id errors
+     */
+    @PatchMapping("/moderate")
+    @PreAuthorize("hasAnyRole('MODERATOR', 'ADMIN')")
+    public ResponseEntity<BulkModerationResponse> moderateReviews(
+            @Valid @RequestBody BulkModerationRequest request) {
+        BulkModerationResponse response = reviewService.moderateReviews(request.getItems());
+        return ResponseEntity.ok(response);
+    }
 }
 
 // The @PreAuthorize uses SpEL (Spring Expression Language):
@@ -0,0 +1,31 @@
+package com.ecommerce.ratingmicroservice.dto.request;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkModerationRequest {
+
+    public static final int MAX_ITEMS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    @Valid
+    private List<Item> items;
+
+    @Data
+    public static class Item {
+        @NotBlank
+        private String reviewId;
+
+        @NotNull
+        private Review.Status status; // APPROVED or REJECTED
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.ratingmicroservice.dto.request;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of an NDJSON review import, e.g.
+ * {"productId":"...","userId":"...","rating":5,"comment":"...","status":"APPROVED","createdAt":"2023-05-01T10:15:30"}
+ * status defaults to PENDING and createdAt to the import time.
+ */
+@Data
+public class ReviewImportLine {
+    private String productId;
+    private String userId;
+    private Integer rating;
+    private String comment;
+    private Review.Status status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.ratingmicroservice.dto.response;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class BulkModerationResponse {
+    private int approved;
+    private int rejected;
+    private int unchanged; // already in the requested status
+    private Map<String, String> errors = new LinkedHashMap<>(); // reviewId -> reason, not applied
+}
@@ -21,6 +21,9 @@ public class PageResponse<T> implements Serializable {
     private boolean last;
     private boolean empty;
 
+    // Opaque keyset token for the next page; null when there is no next page
+    private String nextCursor;
+
     /**
      * Factory method to convert Spring Data Page to cacheable PageResponse
      */
@@ -33,7 +36,47 @@ public class PageResponse<T> implements Serializable {
                 page.getTotalPages(),
                 page.isFirst(),
                 page.isLast(),
-                page.isEmpty()
+                page.isEmpty(),
+                null
+        );
+    }
+
+    /**
+     * Factory method for count-free slices.
+     * totalElements is the given (possibly approximate) total, or -1 when unknown;
+     * "last" comes from the slice's look-ahead row, not from the total.
+     */
+    public static <T> PageResponse<T> fromSlice(org.springframework.data.domain.Slice<T> slice, long totalElements) {
+        int totalPages = totalElements < 0 ? -1
+                : (int) Math.max(1, (totalElements + slice.getSize() - 1) / Math.max(1, slice.getSize()));
+        return new PageResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                totalElements,
+                totalPages,
+                slice.isFirst(),
+                slice.isLast(),
+                slice.isEmpty(),
+                null
+        );
+    }
+
+    /**
+     * Factory method for keyset (cursor) pages.
+     * Total counts are not computed in cursor mode and are reported as -1.
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> content, int pageSize, boolean first, String nextCursor) {
+        return new PageResponse<>(
+                content,
+                -1,
+                pageSize,
+                -1,
+                -1,
+                first,
+                nextCursor == null,
+                content.isEmpty(),
+                nextCursor
         );
     }
 }
\ No newline at end of file
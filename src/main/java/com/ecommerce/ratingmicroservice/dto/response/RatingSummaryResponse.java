@@ -0,0 +1,41 @@
+package com.ecommerce.ratingmicroservice.dto.response;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryResponse implements Serializable {
+
+    private String productId;
+    private Double averageRating;
+    private Integer totalReviews;
+    private Map<Integer, Integer> histogram; // star (1..5) -> APPROVED review count
+
+    /**
+     * Factory method to build the summary from the counters maintained on the product
+     */
+    public static RatingSummaryResponse from(Product product) {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        for (int star = 1; star <= 5; star++) {
+            Integer count = product.getRatingHistogram() != null
+                    ? product.getRatingHistogram().get(String.valueOf(star))
+                    : null;
+            histogram.put(star, count != null ? count : 0);
+        }
+
+        return new RatingSummaryResponse(
+                product.getId(),
+                product.getAverageRating() != null ? product.getAverageRating() : 0.0,
+                product.getTotalReviews() != null ? product.getTotalReviews() : 0,
+                histogram
+        );
+    }
+}
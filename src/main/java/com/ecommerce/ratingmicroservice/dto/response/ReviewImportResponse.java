@@ -0,0 +1,35 @@
+package com.ecommerce.ratingmicroservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ReviewImportResponse {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long lines;
+    private long imported;
+    private long failed;
+    private List<LineError> errors = new ArrayList<>(); // first MAX_REPORTED_ERRORS failures only
+    private boolean errorsTruncated;
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.ratingmicroservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending outbound email, written in the same transaction as the change that triggers it
+ * and delivered asynchronously by EmailOutboxDispatcher.
+ * SENT messages are removed by a TTL index a week after delivery; FAILED ones stay for inspection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "email_outbox")
+@CompoundIndex(name = "outbox_status_next_attempt_idx", def = "{'status': 1, 'next_attempt_at': 1}")
+public class EmailOutbox {
+
+    public enum Type {
+        VERIFICATION
+    }
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    private String id;
+
+    @Field("type")
+    private Type type;
+
+    @Field("recipient")
+    private String recipient;
+
+    @Field("token")
+    private String token;
+
+    @Field("status")
+    private Status status;
+
+    @Field("attempts")
+    private int attempts;
+
+    // PENDING: earliest next delivery; SENDING: lease expiry after which another dispatcher may retry
+    @Field("next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Field("last_error")
+    private String lastError;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    // Only SENT messages have it, so the TTL index never touches undelivered ones
+    @Indexed(name = "outbox_sent_ttl_idx", expireAfter = "7d")
+    @Field("sent_at")
+    private LocalDateTime sentAt;
+}
@@ -1,32 +1,57 @@
 package com.ecommerce.ratingmicroservice.entity;
 
 import lombok.*;
+import org.springframework.data.annotation.AccessType;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "products")
+// (sort key, _id) indexes behind keyset pagination (ProductSortKey); walked backwards for desc
+@CompoundIndexes({
+        @CompoundIndex(name = "product_price_id_idx", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "product_rating_id_idx", def = "{'average_rating': 1, '_id': 1}"),
+        @CompoundIndex(name = "product_name_id_idx", def = "{'name': 1, '_id': 1}")
+})
 public class Product{
 
     @Id
     private String id;
 
+    // Text index (one per collection) over name/category/description: stemmed, relevance-weighted search
     @Indexed
+    @TextIndexed(weight = 10)
     @Field("name")
     private String name;
 
+    @TextIndexed
     @Field("description")
     private String description;
 
-    @Indexed
+    // Read through setCategory as well, so products stored before category_key existed get it on load
+    @TextIndexed(weight = 3)
+    @AccessType(AccessType.Type.PROPERTY)
     @Field("category")
     private String category;
 
+    // Trimmed, lower-cased category: exact category filters match this with equality on its index
+    @Indexed
+    @Setter(AccessLevel.NONE)
+    @Field("category_key")
+    private String categoryKey;
+
     @Field("price")
     private BigDecimal price;
 
@@ -38,4 +63,30 @@ public class Product{
 
     @Field("total_reviews")
     private Integer totalReviews;
-}
\ No newline at end of file
+
+    // Running aggregates over APPROVED reviews, maintained with atomic deltas
+    @Field("rating_sum")
+    private Long ratingSum;
+
+    // Star ("1".."5") -> number of APPROVED reviews with that rating
+    @Field("rating_histogram")
+    private Map<String, Integer> ratingHistogram;
+
+    // Last change to the product or its rating aggregates (incremental exports)
+    @Indexed
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+
+    // Relevance of the last $text match; read-only, never stored
+    @TextScore
+    private Float score;
+
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryKey = categoryKey(category);
+    }
+
+    public static String categoryKey(String category) {
+        return category == null ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,7 +5,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -16,11 +15,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "reviews")
-@CompoundIndex(
-        name = "product_user_idx",
-        def = "{'product_id': 1, 'user_id': 1}",
-        unique = true
-)
+// Indexes are declared in MongoIndexManager, keyed on the stored DBRef paths the queries use
 public class Review{
 
     public enum Status {
@@ -30,14 +25,25 @@ public class Review{
     @Id
     private String id;
 
-    @DBRef
+    // Lazy: reads use the embedded snapshot below and never resolve these refs
+    @DBRef(lazy = true)
     @Field("product")
     private Product product;
 
-    @DBRef
+    @DBRef(lazy = true)
     @Field("user")
     private User user;
 
+    // Denormalized snapshot (avoids a products + users lookup per review on read)
+    @Field("product_id")
+    private String productId;
+
+    @Field("user_id")
+    private String userId;
+
+    @Field("username")
+    private String username; // kept in sync by ReviewUsernameSnapshotListener
+
     @Field("rating")
     private Integer rating; // 1-5
 
@@ -53,4 +59,17 @@ public class Review{
     @Field("status")
     private Status status;
 
+    // Prefer the embedded snapshot; fall back to the DBRef for documents not yet migrated
+    public String resolveProductId() {
+        return productId != null ? productId : (product != null ? product.getId() : null);
+    }
+
+    public String resolveUserId() {
+        return userId != null ? userId : (user != null ? user.getId() : null);
+    }
+
+    public String resolveUsername() {
+        return username != null ? username : (user != null ? user.getUsername() : null);
+    }
+
 }
\ No newline at end of file
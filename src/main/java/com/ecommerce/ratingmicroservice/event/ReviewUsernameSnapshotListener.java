@@ -0,0 +1,38 @@
+package com.ecommerce.ratingmicroservice.event;
+
+import com.ecommerce.ratingmicroservice.cache.CacheGenerations;
+import com.ecommerce.ratingmicroservice.entity.User;
+import com.ecommerce.ratingmicroservice.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propagates username changes into the username snapshot embedded in reviews.
+ * Hooked on every User save so no code path that renames a user can forget it;
+ * the update only touches reviews whose snapshot differs, so unrelated saves are a no-op.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewUsernameSnapshotListener extends AbstractMongoEventListener<User> {
+
+    private final ReviewRepository reviewRepository;
+    private final CacheGenerations cacheGenerations;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        User user = event.getSource();
+        if (user.getId() == null || user.getUsername() == null) {
+            return;
+        }
+
+        long updated = reviewRepository.updateUsernameSnapshot(user.getId(), user.getUsername());
+        if (updated > 0) {
+            cacheGenerations.bumpUser(user.getId());
+            log.info("Propagated username '{}' to {} reviews of user {}", user.getUsername(), updated, user.getId());
+        }
+    }
+}
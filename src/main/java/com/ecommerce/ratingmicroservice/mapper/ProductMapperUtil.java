@@ -3,6 +3,9 @@ package com.ecommerce.ratingmicroservice.mapper;
 import com.ecommerce.ratingmicroservice.dto.request.ProductRequest;
 import com.ecommerce.ratingmicroservice.entity.Product;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+
 public class ProductMapperUtil {
 
     private ProductMapperUtil() {}
@@ -16,6 +19,9 @@ public class ProductMapperUtil {
         product.setImageUrl(request.getImageUrl());
         product.setAverageRating(0.0);
         product.setTotalReviews(0);
+        product.setRatingSum(0L);
+        product.setRatingHistogram(new HashMap<>());
+        product.setUpdatedAt(LocalDateTime.now());
         return product;
     }
 }
@@ -14,6 +14,9 @@ public class ReviewMapperUtil {
         Review review = new Review();
         review.setProduct(product);
         review.setUser(user);
+        review.setProductId(product.getId());
+        review.setUserId(user.getId());
+        review.setUsername(user.getUsername());
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setCreatedAt(LocalDateTime.now());
@@ -25,9 +28,9 @@ public class ReviewMapperUtil {
     public static ReviewResponse toResponse(Review review) {
         ReviewResponse response = new ReviewResponse();
         response.setId(review.getId());
-        response.setProductId(review.getProduct().getId());
-        response.setUserId(review.getUser().getId());
-        response.setUsername(review.getUser().getUsername());
+        response.setProductId(review.resolveProductId());
+        response.setUserId(review.resolveUserId());
+        response.setUsername(review.resolveUsername());
         response.setRating(review.getRating());
         response.setComment(review.getComment());
         response.setCreatedAt(review.getCreatedAt());
@@ -0,0 +1,73 @@
+package com.ecommerce.ratingmicroservice.migration;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background backfill of category_key for products written before exact category filters matched on it.
+ * The key is computed with Product.categoryKey, the same normalization the write path uses; a product saved
+ * in the meantime already carries its key and is left alone.
+ * Idempotent - only documents without category_key are selected, so restarts simply resume.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryKeyMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        MongoCollection<Document> products = mongoTemplate.getCollection("products");
+        Bson notMigrated = Filters.exists("category_key", false);
+
+        long migrated = 0;
+        try {
+            List<Document> batch;
+            while (!(batch = products.find(notMigrated)
+                    .projection(Projections.include("category"))
+                    .limit(BATCH_SIZE)
+                    .into(new ArrayList<>())).isEmpty()) {
+
+                List<WriteModel<Document>> updates = new ArrayList<>(batch.size());
+                for (Document product : batch) {
+                    updates.add(new UpdateOneModel<>(
+                            Filters.and(Filters.eq("_id", product.get("_id")), notMigrated),
+                            Updates.set("category_key", Product.categoryKey(product.getString("category")))));
+                }
+
+                products.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+                migrated += updates.size();
+                log.debug("Set category_key on {} products so far", migrated);
+            }
+        } catch (Exception e) {
+            log.error("Category key backfill stopped after {} products; it will resume on next start", migrated, e);
+            return;
+        }
+
+        if (migrated > 0) {
+            log.info("Category key backfill complete: {} products migrated", migrated);
+        }
+    }
+}
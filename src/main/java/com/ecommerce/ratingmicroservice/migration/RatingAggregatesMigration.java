@@ -0,0 +1,64 @@
+package com.ecommerce.ratingmicroservice.migration;
+
+import com.ecommerce.ratingmicroservice.repository.ProductRepository;
+import com.ecommerce.ratingmicroservice.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Background backfill of rating_sum/rating_histogram for products written before those aggregates existed,
+ * and repair of products whose first rating delta ran on the missing fields (histogram not adding up to
+ * total_reviews). Totals are recomputed from the APPROVED reviews with a server-side $group.
+ *
+ * The write path does not depend on this having finished: deltas only apply to consistent products and
+ * rebuild the others on the spot. Both sides write conditionally, so whichever rebuild lands first wins
+ * and the other becomes a no-op.
+ * Idempotent - only products that still need a rebuild are selected, so restarts simply resume.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RatingAggregatesMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long rebuilt = 0;
+        String lastId = null;
+        try {
+            List<String> batch;
+            while (!(batch = productRepository.findIdsNeedingRatingRebuild(lastId, BATCH_SIZE)).isEmpty()) {
+                for (String productId : batch) {
+                    try {
+                        if (productService.initializeRatingAggregates(productId)) {
+                            rebuilt++;
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // e.g. a review with an out-of-range rating - leave this product for manual repair
+                        log.warn("Could not rebuild rating aggregates of product {}: {}", productId, e.getMessage());
+                    }
+                }
+                lastId = batch.get(batch.size() - 1);
+                log.debug("Rebuilt rating aggregates of {} products so far", rebuilt);
+            }
+        } catch (Exception e) {
+            log.error("Rating aggregates backfill stopped after {} products; it will resume on next start", rebuilt, e);
+            return;
+        }
+
+        if (rebuilt > 0) {
+            log.info("Rating aggregates backfill complete: {} products rebuilt", rebuilt);
+        }
+    }
+}
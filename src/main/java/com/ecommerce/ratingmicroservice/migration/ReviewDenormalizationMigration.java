@@ -0,0 +1,124 @@
+package com.ecommerce.ratingmicroservice.migration;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Background backfill of the denormalized review fields (product_id, user_id, username)
+ * for documents written before reviews embedded them.
+ * Works on raw documents in batches so DBRefs are never resolved one by one:
+ * one find per batch, one users lookup per batch and one unordered bulk write per batch.
+ * Idempotent - only documents without product_id are selected, so restarts simply resume.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewDenormalizationMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        MongoCollection<Document> reviews = mongoTemplate.getCollection("reviews");
+        MongoCollection<Document> users = mongoTemplate.getCollection("users");
+        Bson notMigrated = Filters.exists("product_id", false);
+
+        long migrated = 0;
+        try {
+            List<Document> batch;
+            while (!(batch = reviews.find(notMigrated)
+                    .projection(Projections.include("product", "user"))
+                    .limit(BATCH_SIZE)
+                    .into(new ArrayList<>())).isEmpty()) {
+
+                Map<Object, String> usernames = loadUsernames(users, batch);
+
+                List<WriteModel<Document>> updates = new ArrayList<>(batch.size());
+                for (Document review : batch) {
+                    Object userRef = refId(review.get("user"));
+                    Document snapshot = new Document()
+                            .append("product_id", idString(refId(review.get("product"))))
+                            .append("user_id", idString(userRef))
+                            .append("username", userRef != null ? usernames.get(userRef) : null);
+                    updates.add(new UpdateOneModel<>(
+                            Filters.eq("_id", review.get("_id")),
+                            new Document("$set", snapshot)));
+                }
+
+                reviews.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+                migrated += updates.size();
+                log.debug("Denormalized {} reviews so far", migrated);
+            }
+        } catch (Exception e) {
+            log.error("Review denormalization stopped after {} documents; it will resume on next start", migrated, e);
+            return;
+        }
+
+        if (migrated > 0) {
+            log.info("Review denormalization complete: {} documents migrated", migrated);
+        }
+    }
+
+    private Map<Object, String> loadUsernames(MongoCollection<Document> users, List<Document> batch) {
+        Set<Object> userIds = new HashSet<>();
+        for (Document review : batch) {
+            Object userRef = refId(review.get("user"));
+            if (userRef != null) {
+                userIds.add(userRef);
+            }
+        }
+
+        Map<Object, String> usernames = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return usernames;
+        }
+        for (Document user : users.find(Filters.in("_id", userIds))
+                .projection(Projections.include("username"))) {
+            usernames.put(user.get("_id"), user.getString("username"));
+        }
+        return usernames;
+    }
+
+    // DBRefs may decode as DBRef or as a plain {$ref, $id} document depending on the codec
+    private static Object refId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        if (ref instanceof Document document) {
+            return document.get("$id");
+        }
+        return null;
+    }
+
+    private static String idString(Object id) {
+        if (id == null) {
+            return null;
+        }
+        return id instanceof ObjectId objectId ? objectId.toHexString() : id.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.ratingmicroservice.pagination;
+
+import java.util.Locale;
+
+/**
+ * How much a paged product response pays for its totals.
+ * EXACT - count the full filter on every page (totalElements/totalPages exact)
+ * NONE - slice: fetch size + 1 rows and report hasNext only (totals are -1)
+ * APPROXIMATE - slice plus a cached, possibly slightly stale total
+ */
+public enum CountMode {
+    EXACT, NONE, APPROXIMATE;
+
+    public static CountMode parse(String value) {
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid count mode: " + value + " (expected exact, none or approximate)");
+        }
+    }
+}
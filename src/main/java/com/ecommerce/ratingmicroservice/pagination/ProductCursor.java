@@ -0,0 +1,56 @@
+package com.ecommerce.ratingmicroservice.pagination;
+
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for product pages ordered by (sortKey, id), both in the same direction.
+ * Encoded as URL-safe Base64 of "sortKey|direction|id|value" so clients treat it as a token;
+ * the value is last so it may itself contain '|', and is prefixed with 'v' (or is just 'n' for null)
+ * to keep null apart from an empty name.
+ */
+@Value
+public class ProductCursor {
+
+    private static final String NULL_VALUE = "n";
+    private static final String VALUE_PREFIX = "v";
+
+    ProductSortKey sortKey;
+    Sort.Direction direction;
+    Object value;
+    String id;
+
+    public static ProductCursor after(ProductResponse last, ProductSortKey sortKey, Sort.Direction direction) {
+        return new ProductCursor(sortKey, direction, sortKey.valueOf(last), last.getId());
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + "|" + direction.name() + "|" + id + "|"
+                + (value == null ? NULL_VALUE : VALUE_PREFIX + sortKey.encodeValue(value));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || parts[2].isEmpty()
+                    || !(parts[3].equals(NULL_VALUE) || parts[3].startsWith(VALUE_PREFIX))) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+
+            ProductSortKey sortKey = ProductSortKey.valueOf(parts[0]);
+            Object value = parts[3].equals(NULL_VALUE) || sortKey == ProductSortKey.ID
+                    ? null
+                    : sortKey.decodeValue(parts[3].substring(VALUE_PREFIX.length()));
+            return new ProductCursor(sortKey, Sort.Direction.valueOf(parts[1]), value, parts[2]);
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
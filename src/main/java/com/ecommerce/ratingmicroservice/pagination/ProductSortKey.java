@@ -0,0 +1,66 @@
+package com.ecommerce.ratingmicroservice.pagination;
+
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Product sort keys that support keyset pagination. Each is backed by a (key, _id) index
+ * and always ends with an _id tie-break in the same direction, so the order is total.
+ */
+public enum ProductSortKey {
+
+    PRICE("price", ProductResponse::getPrice),
+    AVERAGE_RATING("averageRating", ProductResponse::getAverageRating),
+    NAME("name", ProductResponse::getName),
+    ID("id", ProductResponse::getId);
+
+    private final String property;
+    private final Function<ProductResponse, Object> extractor;
+
+    ProductSortKey(String property, Function<ProductResponse, Object> extractor) {
+        this.property = property;
+        this.extractor = extractor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static Optional<ProductSortKey> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(key -> key.property.equals(property))
+                .findFirst();
+    }
+
+    public static ProductSortKey parse(String property) {
+        return fromProperty(property).orElseThrow(() -> new IllegalArgumentException(
+                "Cursor pagination supports sortBy price, averageRating, name or id, not: " + property));
+    }
+
+    public Sort sort(Sort.Direction direction) {
+        return this == ID ? Sort.by(direction, "id") : Sort.by(direction, property, "id");
+    }
+
+    // Sort value of the last row of a page (ignored for ID, whose value is the id itself)
+    Object valueOf(ProductResponse product) {
+        return this == ID ? null : extractor.apply(product);
+    }
+
+    String encodeValue(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+    }
+
+    Object decodeValue(String value) {
+        return switch (this) {
+            case PRICE -> new BigDecimal(value);
+            case AVERAGE_RATING -> Double.valueOf(value);
+            case NAME -> value;
+            case ID -> null;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.ratingmicroservice.pagination;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for review pages ordered by (createdAt desc, id desc).
+ * Encoded as URL-safe Base64 of "createdAt|id" so clients treat it as a token.
+ */
+@Value
+public class ReviewCursor {
+
+    LocalDateTime createdAt;
+    String id;
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new ReviewCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1)
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.EmailOutbox;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface EmailOutboxRepository extends MongoRepository<EmailOutbox, String> {
+
+    long countByStatus(EmailOutbox.Status status);
+}
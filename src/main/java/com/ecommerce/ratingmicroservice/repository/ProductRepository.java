@@ -3,32 +3,54 @@ package com.ecommerce.ratingmicroservice.repository;
 import com.ecommerce.ratingmicroservice.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.math.BigDecimal;
 
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+
+    String SEARCH_QUERY = "{" +
+            "  $and: [" +
+            "    { 'name': { $regex: ?0, $options: 'i' } }," +
+            "    { 'category': { $regex: ?1, $options: 'i' } }," +
+            "    { 'price': { $gte: ?2, $lte: ?3 } }" +
+            "  ]" +
+            "}";
+
+    // All products without the count query (reads size + 1 rows to know hasNext)
+    Slice<Product> findAllBy(Pageable pageable);
 
     // Search by name (case-insensitive, partial match)
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
-    // Search by category
-    Page<Product> findByCategoryIgnoreCase(String category, Pageable pageable);
+    // Search by category (exact, case-insensitive via the normalized category_key)
+    default Page<Product> findByCategoryIgnoreCase(String category, Pageable pageable) {
+        return findByCategoryKey(Product.categoryKey(category), pageable);
+    }
+
+    Page<Product> findByCategoryKey(String categoryKey, Pageable pageable);
 
     // Search by name + category
-    Page<Product> findByNameContainingIgnoreCaseAndCategoryIgnoreCase(String name, String category, Pageable pageable);
+    default Page<Product> findByNameContainingIgnoreCaseAndCategoryIgnoreCase(String name, String category,
+                                                                             Pageable pageable) {
+        return findByNameContainingIgnoreCaseAndCategoryKey(name, Product.categoryKey(category), pageable);
+    }
+
+    Page<Product> findByNameContainingIgnoreCaseAndCategoryKey(String name, String categoryKey, Pageable pageable);
 
     // Search by price range
     Page<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
     // Combined search: name, category, price range
-    @Query("{" +
-            "  $and: [" +
-            "    { 'name': { $regex: ?0, $options: 'i' } }," +
-            "    { 'category': { $regex: ?1, $options: 'i' } }," +
-            "    { 'price': { $gte: ?2, $lte: ?3 } }" +
-            "  ]" +
-            "}")
+    @Query(SEARCH_QUERY)
     Page<Product> searchProducts(String nameRegex, String categoryRegex, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    // Same search without the count query
+    @Query(SEARCH_QUERY)
+    Slice<Product> searchProductsSlice(String nameRegex, String categoryRegex, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    @Query(value = SEARCH_QUERY, count = true)
+    long countSearchProducts(String nameRegex, String categoryRegex, BigDecimal minPrice, BigDecimal maxPrice);
 }
\ No newline at end of file
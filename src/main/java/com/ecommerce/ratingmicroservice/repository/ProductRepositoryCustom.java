@@ -0,0 +1,82 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Custom product operations that need MongoTemplate (atomic partial updates).
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically adjusts rating_sum, total_reviews and rating_histogram by the given delta
+     * and recomputes average_rating from the new totals in the same update.
+     * Only applies to products whose aggregates are initialized and consistent (see initializeRatingAggregates).
+     *
+     * @return false if no such product exists - either the id is unknown or its aggregates need a rebuild first
+     */
+    boolean applyRatingDelta(String productId, RatingDelta delta);
+
+    /**
+     * Writes absolute totals, but only to a product whose aggregates are missing (written before rating_sum and
+     * the histogram existed) or inconsistent (histogram does not add up to total_reviews). Conditional, so a
+     * rebuild never overwrites aggregates that a concurrent rebuild already initialized and deltas have moved on.
+     *
+     * @return false if the product does not exist or no longer needs initializing
+     */
+    boolean initializeRatingAggregates(String productId, RatingDelta totals);
+
+    /**
+     * Ids of products whose aggregates need initializing, in id order, starting after the given id.
+     */
+    List<String> findIdsNeedingRatingRebuild(String afterId, int limit);
+
+    /**
+     * Overwrites the rating aggregates with absolute totals (used by full rebuilds).
+     *
+     * @return false if no product with this id exists
+     */
+    boolean replaceRatingAggregates(String productId, RatingDelta totals);
+
+    /**
+     * Keyset page of products in (sortKey, id) order, both in the given direction,
+     * starting strictly after the cursor (or from the first product when cursor is null).
+     * Products without a value for the sort key sort as null: first ascending, last descending.
+     */
+    List<Product> findAfter(ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor, int limit);
+
+    /**
+     * Collection size from metadata (estimatedDocumentCount) - no scan, may be off briefly after writes.
+     */
+    long estimatedCount();
+
+    /**
+     * Ids of the products with the most reviews, most reviewed first (used for cache warm-up).
+     */
+    List<String> findMostReviewedIds(int limit);
+
+    /**
+     * Full-text search over the products text index (name, category, description), tokenized and
+     * stemmed by Mongo, with optional exact (case-insensitive) category and price range filters on top.
+     * Ordered by relevance unless the pageable carries an explicit sort.
+     */
+    Page<Product> textSearch(String text, String category, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Same as textSearch without the count query: reads one extra row to know whether there is a next page.
+     */
+    Slice<Product> textSearchSlice(String text, String category, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Number of products matching a text search with the given filters.
+     */
+    long countTextSearch(String text, String category, BigDecimal minPrice, BigDecimal maxPrice);
+}
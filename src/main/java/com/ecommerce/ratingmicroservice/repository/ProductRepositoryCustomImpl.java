@@ -0,0 +1,294 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean applyRatingDelta(String productId, RatingDelta delta) {
+        if (delta.isEmpty()) {
+            return mongoTemplate.exists(byId(productId), Product.class);
+        }
+
+        // Stage 1: increment counters (missing fields on legacy documents count as 0)
+        Document increments = new Document()
+                .append("rating_sum", increment("$rating_sum", delta.getSum()))
+                .append("total_reviews", increment("$total_reviews", delta.getCount()))
+                .append("updated_at", "$$NOW");
+        for (int star = 1; star <= 5; star++) {
+            int starDelta = delta.getStarDelta(star);
+            if (starDelta != 0) {
+                increments.append("rating_histogram." + star,
+                        increment("$rating_histogram." + star, starDelta));
+            }
+        }
+
+        // Stage 2: derive the average from the already-incremented totals
+        Document average = new Document("average_rating", new Document("$cond", List.of(
+                new Document("$gt", List.of("$total_reviews", 0)),
+                new Document("$divide", List.of("$rating_sum", "$total_reviews")),
+                0.0
+        )));
+
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+                stage(new Document("$set", increments)),
+                stage(new Document("$set", average))
+        ));
+
+        Query initialized = byId(productId).addCriteria(aggregatesConsistent());
+        return mongoTemplate.updateFirst(initialized, update, Product.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean initializeRatingAggregates(String productId, RatingDelta totals) {
+        Query needsRebuild = byId(productId).addCriteria(aggregatesNeedRebuild());
+        return mongoTemplate.updateFirst(needsRebuild, absoluteTotals(totals), Product.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<String> findIdsNeedingRatingRebuild(String afterId, int limit) {
+        return mongoTemplate.find(needingRatingRebuild(afterId, limit), Product.class).stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+    }
+
+    static Query needingRatingRebuild(String afterId, int limit) {
+        Query query = new Query(aggregatesNeedRebuild())
+                .with(Sort.by("id"))
+                .limit(limit);
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.fields().include("_id");
+        return query;
+    }
+
+    @Override
+    public boolean replaceRatingAggregates(String productId, RatingDelta totals) {
+        return mongoTemplate.updateFirst(byId(productId), absoluteTotals(totals), Product.class).getMatchedCount() > 0;
+    }
+
+    private static Update absoluteTotals(RatingDelta totals) {
+        Map<String, Integer> histogram = new HashMap<>();
+        for (int star = 1; star <= 5; star++) {
+            histogram.put(String.valueOf(star), totals.getStarDelta(star));
+        }
+
+        return new Update()
+                .set("ratingSum", totals.getSum())
+                .set("totalReviews", totals.getCount())
+                .set("ratingHistogram", histogram)
+                .set("averageRating", totals.getCount() > 0 ? (double) totals.getSum() / totals.getCount() : 0.0)
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    /*
+     * rating_sum is present and the histogram adds up to total_reviews. Products written before the aggregates
+     * existed fail the first check; products whose first delta ran on missing fields (before this guard) fail
+     * the second. Deltas must not apply to either - they are rebuilt from their reviews instead.
+     */
+    static Criteria aggregatesConsistent() {
+        return new Criteria().andOperator(
+                Criteria.where("ratingSum").exists(true),
+                Criteria.expr(() -> new Document("$eq", List.of(histogramTotal(), totalReviews()))));
+    }
+
+    static Criteria aggregatesNeedRebuild() {
+        return new Criteria().orOperator(
+                Criteria.where("ratingSum").exists(false),
+                Criteria.expr(() -> new Document("$ne", List.of(histogramTotal(), totalReviews()))));
+    }
+
+    private static Document histogramTotal() {
+        List<Object> stars = new ArrayList<>();
+        for (int star = 1; star <= 5; star++) {
+            stars.add(new Document("$ifNull", List.of("$rating_histogram." + star, 0)));
+        }
+        return new Document("$add", stars);
+    }
+
+    private static Document totalReviews() {
+        return new Document("$ifNull", List.of("$total_reviews", 0));
+    }
+
+    @Override
+    public List<Product> findAfter(ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor, int limit) {
+        return mongoTemplate.find(pageAfter(sortKey, direction, cursor, limit), Product.class);
+    }
+
+    static Query pageAfter(ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor, int limit) {
+        Query query = new Query()
+                .with(sortKey.sort(direction))
+                .limit(limit);
+        if (cursor != null) {
+            query.addCriteria(afterCursor(sortKey, direction, cursor));
+        }
+        return query;
+    }
+
+    /*
+     * Rows strictly after (value, id). Mongo sorts null/missing before any value, and range
+     * operators never match null, so the null bucket is handled explicitly.
+     */
+    static Criteria afterCursor(ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor) {
+        boolean ascending = direction.isAscending();
+        Criteria idAfter = ascending
+                ? Criteria.where("id").gt(cursor.getId())
+                : Criteria.where("id").lt(cursor.getId());
+
+        if (sortKey == ProductSortKey.ID) {
+            return idAfter;
+        }
+
+        String field = sortKey.getProperty();
+        Object value = cursor.getValue();
+        if (value == null) {
+            Criteria sameNullBucket = new Criteria().andOperator(Criteria.where(field).is(null), idAfter);
+            return ascending
+                    ? new Criteria().orOperator(sameNullBucket, Criteria.where(field).ne(null))
+                    : sameNullBucket;
+        }
+
+        Criteria beyondValue = ascending ? Criteria.where(field).gt(value) : Criteria.where(field).lt(value);
+        Criteria sameValue = new Criteria().andOperator(Criteria.where(field).is(value), idAfter);
+        return ascending
+                ? new Criteria().orOperator(beyondValue, sameValue)
+                : new Criteria().orOperator(beyondValue, sameValue, Criteria.where(field).is(null));
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Product.class);
+    }
+
+    @Override
+    public List<String> findMostReviewedIds(int limit) {
+        return mongoTemplate.find(mostReviewed(limit), Product.class).stream()
+                .map(Product::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Top-k sort: Mongo keeps only 'limit' documents in memory, no index needed for a startup query
+    static Query mostReviewed(int limit) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "totalReviews"))
+                .limit(limit);
+        query.fields().include("_id");
+        return query;
+    }
+
+    @Override
+    public Page<Product> textSearch(String text, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                    Pageable pageable) {
+        TextQuery query = textQuery(text, category, minPrice, maxPrice, pageable);
+        query.with(pageable);
+
+        List<Product> content = mongoTemplate.find(query, Product.class);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countTextSearch(text, category, minPrice, maxPrice));
+    }
+
+    @Override
+    public Slice<Product> textSearchSlice(String text, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                          Pageable pageable) {
+        TextQuery query = textQuery(text, category, minPrice, maxPrice, pageable);
+        query.with(pageable.getSort());
+        query.skip(pageable.getOffset()).limit(pageable.getPageSize() + 1);
+
+        List<Product> content = mongoTemplate.find(query, Product.class);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countTextSearch(String text, String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        return mongoTemplate.count(textSearchCount(text, category, minPrice, maxPrice), Product.class);
+    }
+
+    static Query textSearchCount(String text, String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        Query count = new Query().addCriteria(TextCriteria.forDefaultLanguage().matching(text));
+        searchFilters(category, minPrice, maxPrice).forEach(count::addCriteria);
+        return count;
+    }
+
+    static TextQuery textQuery(String text, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                       Pageable pageable) {
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text));
+        searchFilters(category, minPrice, maxPrice).forEach(query::addCriteria);
+        if (pageable.getSort().isUnsorted()) {
+            query.sortByScore();
+        } else {
+            query.includeScore();
+        }
+        return query;
+    }
+
+    // Same filter as ProductRepository.SEARCH_QUERY (patterns must already be quoted)
+    static Criteria searchCriteria(String nameRegex, String categoryRegex, BigDecimal minPrice, BigDecimal maxPrice) {
+        return new Criteria().andOperator(
+                Criteria.where("name").regex(nameRegex, "i"),
+                Criteria.where("category").regex(categoryRegex, "i"),
+                Criteria.where("price").gte(minPrice).lte(maxPrice)
+        );
+    }
+
+    static List<Criteria> searchFilters(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        List<Criteria> filters = new ArrayList<>();
+        if (category != null && !category.isBlank()) {
+            // Equality on the normalized key, so the category_key index bounds the scan
+            filters.add(Criteria.where("categoryKey").is(Product.categoryKey(category)));
+        }
+        if (minPrice != null || maxPrice != null) {
+            Criteria price = Criteria.where("price");
+            if (minPrice != null) {
+                price.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                price.lte(maxPrice);
+            }
+            filters.add(price);
+        }
+        return filters;
+    }
+
+    static Query byId(String productId) {
+        return Query.query(Criteria.where("id").is(productId));
+    }
+
+    private static Document increment(String fieldRef, Number delta) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of(fieldRef, 0)), delta));
+    }
+
+    private static AggregationOperation stage(Document document) {
+        return context -> document;
+    }
+}
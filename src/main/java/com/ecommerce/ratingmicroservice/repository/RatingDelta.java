@@ -0,0 +1,82 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Change to a product's rating aggregates (sum, count and per-star histogram)
+ * caused by a review entering or leaving the APPROVED state.
+ * Deltas can be merged so several transitions on one product become a single update.
+ */
+@Getter
+public class RatingDelta {
+
+    private long sum;
+    private int count;
+    private final int[] stars = new int[6]; // index 1..5, index 0 unused
+
+    public static RatingDelta empty() {
+        return new RatingDelta();
+    }
+
+    // APPROVED review added (moderation approve, import of approved review)
+    public static RatingDelta added(int rating) {
+        return new RatingDelta().add(rating);
+    }
+
+    // APPROVED review removed (delete)
+    public static RatingDelta removed(int rating) {
+        return new RatingDelta().remove(rating);
+    }
+
+    // APPROVED review edited from one rating to another
+    public static RatingDelta changed(int oldRating, int newRating) {
+        return new RatingDelta().remove(oldRating).add(newRating);
+    }
+
+    public RatingDelta add(int rating) {
+        return apply(rating, 1);
+    }
+
+    public RatingDelta remove(int rating) {
+        return apply(rating, -1);
+    }
+
+    // Adds 'times' reviews with the same rating (used when folding $group results)
+    public RatingDelta add(int rating, int times) {
+        return apply(rating, times);
+    }
+
+    public RatingDelta plus(RatingDelta other) {
+        sum += other.sum;
+        count += other.count;
+        for (int star = 1; star <= 5; star++) {
+            stars[star] += other.stars[star];
+        }
+        return this;
+    }
+
+    public int getStarDelta(int star) {
+        return stars[star];
+    }
+
+    public boolean isEmpty() {
+        return sum == 0 && count == 0 && Arrays.stream(stars).allMatch(s -> s == 0);
+    }
+
+    private RatingDelta apply(int rating, int times) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5: " + rating);
+        }
+        sum += (long) times * rating;
+        count += times;
+        stars[rating] += times;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "RatingDelta{sum=" + sum + ", count=" + count + ", stars=" + Arrays.toString(stars) + "}";
+    }
+}
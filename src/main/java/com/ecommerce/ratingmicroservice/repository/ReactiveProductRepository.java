@@ -0,0 +1,11 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Non-blocking product reads for the reactive read API (ReactiveReadController).
+ * Writes stay on ProductRepository.
+ */
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String>, ReactiveProductRepositoryCustom {
+}
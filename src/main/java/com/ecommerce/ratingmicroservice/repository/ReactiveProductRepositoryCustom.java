@@ -0,0 +1,35 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+
+/**
+ * Reactive counterparts of the ProductRepositoryCustom reads, built from the same criteria.
+ * Slice methods read pageSize + 1 rows so the caller can tell whether there is a next page;
+ * none of them runs a count.
+ */
+public interface ReactiveProductRepositoryCustom {
+
+    /**
+     * Same order and cursor semantics as ProductRepositoryCustom.findAfter.
+     */
+    Flux<Product> findAfter(ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor, int limit);
+
+    Flux<Product> findSlice(Pageable pageable);
+
+    /**
+     * Same matching and ordering as ProductRepositoryCustom.textSearch.
+     */
+    Flux<Product> textSearchSlice(String text, String category, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Same filter as ProductRepository.searchProducts (patterns must already be quoted).
+     */
+    Flux<Product> searchSlice(String nameRegex, String categoryRegex, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+
+@RequiredArgsConstructor
+public class ReactiveProductRepositoryCustomImpl implements ReactiveProductRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Product> findAfter(ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor, int limit) {
+        return mongoTemplate.find(ProductRepositoryCustomImpl.pageAfter(sortKey, direction, cursor, limit), Product.class);
+    }
+
+    @Override
+    public Flux<Product> findSlice(Pageable pageable) {
+        return mongoTemplate.find(slice(new Query(), pageable), Product.class);
+    }
+
+    @Override
+    public Flux<Product> textSearchSlice(String text, String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                         Pageable pageable) {
+        TextQuery query = ProductRepositoryCustomImpl.textQuery(text, category, minPrice, maxPrice, pageable);
+        return mongoTemplate.find(slice(query, pageable), Product.class);
+    }
+
+    @Override
+    public Flux<Product> searchSlice(String nameRegex, String categoryRegex, BigDecimal minPrice, BigDecimal maxPrice,
+                                     Pageable pageable) {
+        Query query = Query.query(ProductRepositoryCustomImpl.searchCriteria(nameRegex, categoryRegex, minPrice, maxPrice));
+        return mongoTemplate.find(slice(query, pageable), Product.class);
+    }
+
+    private static Query slice(Query query, Pageable pageable) {
+        return query.with(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Non-blocking review reads for the reactive read API (ReactiveReadController).
+ * Writes stay on ReviewRepository.
+ */
+public interface ReactiveReviewRepository extends ReactiveMongoRepository<Review, String>, ReactiveReviewRepositoryCustom {
+}
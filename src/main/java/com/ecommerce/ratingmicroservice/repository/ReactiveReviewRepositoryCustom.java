@@ -0,0 +1,23 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterparts of the review page reads. The product/user DBRefs are not loaded
+ * (reactive mapping cannot resolve them); responses are built from the embedded snapshot.
+ */
+public interface ReactiveReviewRepositoryCustom {
+
+    /**
+     * Same order and cursor semantics as ReviewRepositoryCustom.findByProductAfter.
+     */
+    Flux<Review> findByProductAfter(String productId, Review.Status status, ReviewCursor cursor, int limit);
+
+    /**
+     * Offset page in (createdAt desc, id desc) order, reading pageSize + 1 rows and no count.
+     */
+    Flux<Review> findSliceByProduct(String productId, Review.Status status, Pageable pageable);
+}
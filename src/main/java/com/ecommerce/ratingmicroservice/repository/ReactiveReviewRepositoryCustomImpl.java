@@ -0,0 +1,33 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+public class ReactiveReviewRepositoryCustomImpl implements ReactiveReviewRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Review> findByProductAfter(String productId, Review.Status status, ReviewCursor cursor, int limit) {
+        Query query = ReviewRepositoryCustomImpl.productPageAfter(productId, status, cursor, limit);
+        return mongoTemplate.find(withoutRefs(query), Review.class);
+    }
+
+    @Override
+    public Flux<Review> findSliceByProduct(String productId, Review.Status status, Pageable pageable) {
+        Query query = ReviewRepositoryCustomImpl.productPageAfter(productId, status, null, pageable.getPageSize() + 1)
+                .skip(pageable.getOffset());
+        return mongoTemplate.find(withoutRefs(query), Review.class);
+    }
+
+    private static Query withoutRefs(Query query) {
+        query.fields().exclude("product", "user");
+        return query;
+    }
+}
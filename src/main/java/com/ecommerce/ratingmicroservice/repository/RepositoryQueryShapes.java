@@ -0,0 +1,232 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.query.ConvertingParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoParametersParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoQueryMethod;
+import org.springframework.data.mongodb.repository.query.PartTreeMongoQuery;
+import org.springframework.data.mongodb.repository.query.StringBasedMongoQuery;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.ValueExpressionDelegate;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * One representative query per repository method, keyed by method name, for MongoIndexManager to explain()
+ * at startup. Custom and reactive methods are built with the same static builders their implementations use;
+ * derived and @Query finders are built by Spring Data itself from the repository metadata (declared), so a
+ * renamed finder or an edited @Query string is explained as it is actually sent.
+ * Parameter values are arbitrary - plan selection only depends on the shape.
+ *
+ * Every method declared on the repository interfaces must have an entry (RepositoryQueryShapesTests).
+ */
+public final class RepositoryQueryShapes {
+
+    /**
+     * @param query      null for methods that send no filter (e.g. metadata counts)
+     * @param scanReason why a collection scan is acceptable for this method, or null if it must use an index
+     */
+    public record Shape(Class<?> type, Query query, String scanReason) {
+
+        static Shape indexed(Class<?> type, Query query) {
+            return new Shape(type, query, null);
+        }
+
+        static Shape scan(Class<?> type, Query query, String reason) {
+            return new Shape(type, query, reason);
+        }
+
+        public boolean expectsIndex() {
+            return scanReason == null;
+        }
+    }
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private RepositoryQueryShapes() {
+    }
+
+    public static Map<String, Shape> all(MongoOperations operations) {
+        Map<String, Shape> shapes = new LinkedHashMap<>();
+        shapes.putAll(reviews(operations));
+        shapes.putAll(products(operations));
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    static Map<String, Shape> reviews(MongoOperations operations) {
+        String productId = new ObjectId().toHexString();
+        String userId = new ObjectId().toHexString();
+        ReviewCursor cursor = new ReviewCursor(LocalDateTime.now(), new ObjectId().toHexString());
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt");
+
+        Map<String, Shape> shapes = new LinkedHashMap<>();
+        // ReviewRepository (derived and @Query)
+        for (String method : List.of("existsByProduct_IdAndUser_Id", "findByProduct_IdAndUser_Id")) {
+            shapes.put(method, reviewFinder(operations, method, productId, userId));
+        }
+        for (String method : List.of("findByProduct_IdAndStatusOrderByCreatedAtDesc", "countByProduct_IdAndStatus",
+                "findRatingsByProductAndStatus")) {
+            shapes.put(method, reviewFinder(operations, method, productId, Review.Status.APPROVED));
+        }
+        shapes.put("findByProduct_IdAndStatus", reviewFinder(operations, "findByProduct_IdAndStatus",
+                productId, Review.Status.APPROVED, PageRequest.of(1, 20, newestFirst)));
+        shapes.put("findByUser_IdOrderByCreatedAtDesc",
+                reviewFinder(operations, "findByUser_IdOrderByCreatedAtDesc", userId));
+        shapes.put("findByUser_IdAndStatusOrderByCreatedAtDesc",
+                reviewFinder(operations, "findByUser_IdAndStatusOrderByCreatedAtDesc", userId, Review.Status.APPROVED));
+
+        // ReviewRepositoryCustom ($group rebuild: the leading $match is what selects the index)
+        shapes.put("computeApprovedRatingTotals",
+                Shape.indexed(Review.class, Query.query(ReviewRepositoryCustomImpl.approvedOfProduct(productId))));
+        shapes.put("findByProductAfter", Shape.indexed(Review.class,
+                ReviewRepositoryCustomImpl.productPageAfter(productId, Review.Status.APPROVED, cursor, 21)));
+        shapes.put("updateUsernameSnapshot",
+                Shape.indexed(Review.class, ReviewRepositoryCustomImpl.staleUsernames(userId, "username")));
+        shapes.put("findModerationStateByIds", Shape.indexed(Review.class,
+                ReviewRepositoryCustomImpl.moderationState(List.of(new ObjectId().toHexString()))));
+        shapes.put("bulkUpdateStatus", Shape.indexed(Review.class,
+                ReviewRepositoryCustomImpl.inStatus(new ObjectId().toHexString(), Review.Status.PENDING)));
+
+        // ReactiveReviewRepositoryCustom
+        shapes.put("findSliceByProduct", Shape.indexed(Review.class,
+                ReviewRepositoryCustomImpl.productPageAfter(productId, Review.Status.APPROVED, null, 21).skip(20)));
+        return shapes;
+    }
+
+    static Map<String, Shape> products(MongoOperations operations) {
+        String productId = new ObjectId().toHexString();
+        ProductCursor cursor = new ProductCursor(ProductSortKey.PRICE, Sort.Direction.ASC,
+                new BigDecimal("19.99"), new ObjectId().toHexString());
+        Pageable byPrice = PageRequest.of(1, 20, ProductSortKey.PRICE.sort(Sort.Direction.ASC));
+        BigDecimal minPrice = BigDecimal.ONE;
+        BigDecimal maxPrice = BigDecimal.valueOf(100);
+
+        Map<String, Shape> shapes = new LinkedHashMap<>();
+        // ProductRepository (derived and @Query); the IgnoreCase category finders delegate to the CategoryKey ones
+        shapes.put("findAllBy", productFinder(operations, "findAllBy", byPrice));
+        shapes.put("findByNameContainingIgnoreCase", Shape.scan(Product.class,
+                declared(operations, ProductRepository.class, "findByNameContainingIgnoreCase", "phone", byPrice),
+                "unanchored regex; full-text search goes through textSearch"));
+        String categoryKey = Product.categoryKey("Electronics");
+        shapes.put("findByCategoryKey", productFinder(operations, "findByCategoryKey", categoryKey, byPrice));
+        shapes.put("findByNameContainingIgnoreCaseAndCategoryKey", productFinder(operations,
+                "findByNameContainingIgnoreCaseAndCategoryKey", "phone", categoryKey, byPrice));
+        shapes.put("findByPriceBetween", productFinder(operations, "findByPriceBetween", minPrice, maxPrice, byPrice));
+
+        // SEARCH_QUERY (searchProducts, searchProductsSlice, countSearchProducts); callers pass quoted patterns
+        String name = Pattern.quote("phone");
+        String category = Pattern.quote("electronics");
+        shapes.put("searchProducts",
+                productFinder(operations, "searchProducts", name, category, minPrice, maxPrice, byPrice));
+        shapes.put("searchProductsSlice",
+                productFinder(operations, "searchProductsSlice", name, category, minPrice, maxPrice, byPrice));
+        shapes.put("countSearchProducts",
+                productFinder(operations, "countSearchProducts", name, category, minPrice, maxPrice));
+        // Its reactive counterpart, built with the same filter
+        shapes.put("searchSlice", Shape.indexed(Product.class, Query.query(
+                ProductRepositoryCustomImpl.searchCriteria(name, category, minPrice, maxPrice)).with(byPrice)));
+
+        // ProductRepositoryCustom
+        Query byId = ProductRepositoryCustomImpl.byId(productId);
+        shapes.put("applyRatingDelta", Shape.indexed(Product.class,
+                Query.of(byId).addCriteria(ProductRepositoryCustomImpl.aggregatesConsistent())));
+        shapes.put("initializeRatingAggregates", Shape.indexed(Product.class,
+                Query.of(byId).addCriteria(ProductRepositoryCustomImpl.aggregatesNeedRebuild())));
+        shapes.put("replaceRatingAggregates", Shape.indexed(Product.class, byId));
+        shapes.put("findIdsNeedingRatingRebuild",
+                Shape.indexed(Product.class, ProductRepositoryCustomImpl.needingRatingRebuild(productId, 500)));
+        shapes.put("findAfter", Shape.indexed(Product.class,
+                ProductRepositoryCustomImpl.pageAfter(ProductSortKey.PRICE, Sort.Direction.ASC, cursor, 21)));
+        shapes.put("estimatedCount", Shape.scan(Product.class, null, "collection metadata, no query"));
+        shapes.put("findMostReviewedIds", Shape.scan(Product.class, ProductRepositoryCustomImpl.mostReviewed(200),
+                "top-k sort run once at startup for cache warm-up"));
+
+        Query textSearch = ProductRepositoryCustomImpl.textQuery("phone", "electronics", minPrice, maxPrice,
+                PageRequest.of(0, 20));
+        shapes.put("textSearch", Shape.indexed(Product.class, textSearch));
+        shapes.put("textSearchSlice", Shape.indexed(Product.class, textSearch));
+        shapes.put("countTextSearch", Shape.indexed(Product.class,
+                ProductRepositoryCustomImpl.textSearchCount("phone", "electronics", minPrice, maxPrice)));
+
+        // ReactiveProductRepositoryCustom (findAfter, textSearchSlice and searchSlice are shared above)
+        shapes.put("findSlice", Shape.indexed(Product.class, new Query().with(byPrice)));
+        return shapes;
+    }
+
+    private static Shape reviewFinder(MongoOperations operations, String method, Object... args) {
+        return Shape.indexed(Review.class, declared(operations, ReviewRepository.class, method, args));
+    }
+
+    private static Shape productFinder(MongoOperations operations, String method, Object... args) {
+        return Shape.indexed(Product.class, declared(operations, ProductRepository.class, method, args));
+    }
+
+    /*
+     * The query Spring Data builds for a derived or @Query finder, from the same repository metadata its
+     * repository factory uses. Paged finders get their pageable applied, as their paged execution does.
+     */
+    static Query declared(MongoOperations operations, Class<?> repository, String methodName, Object... args) {
+        Method method = Arrays.stream(repository.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName) && !candidate.isDefault()
+                        && candidate.getParameterCount() == args.length)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No " + repository.getSimpleName() + "."
+                        + methodName + " taking " + args.length + " parameters"));
+
+        MongoQueryMethod queryMethod = new MongoQueryMethod(method, AbstractRepositoryMetadata.getMetadata(repository),
+                PROJECTIONS, operations.getConverter().getMappingContext());
+        ConvertingParameterAccessor accessor = new ConvertingParameterAccessor(operations.getConverter(),
+                new MongoParametersParameterAccessor(queryMethod, args));
+        Query query = queryMethod.hasAnnotatedQuery()
+                ? new AnnotatedQuery(queryMethod, operations).create(accessor)
+                : new DerivedQuery(queryMethod, operations).create(accessor);
+        if (accessor.getPageable().isPaged()) {
+            query.with(accessor.getPageable());
+        }
+        return query;
+    }
+
+    // createQuery is protected: these only expose it
+
+    private static final class AnnotatedQuery extends StringBasedMongoQuery {
+
+        AnnotatedQuery(MongoQueryMethod method, MongoOperations operations) {
+            super(method, operations, ValueExpressionDelegate.create());
+        }
+
+        Query create(ConvertingParameterAccessor accessor) {
+            return createQuery(accessor);
+        }
+    }
+
+    private static final class DerivedQuery extends PartTreeMongoQuery {
+
+        DerivedQuery(MongoQueryMethod method, MongoOperations operations) {
+            super(method, operations, ValueExpressionDelegate.create());
+        }
+
+        Query create(ConvertingParameterAccessor accessor) {
+            return createQuery(accessor);
+        }
+    }
+}
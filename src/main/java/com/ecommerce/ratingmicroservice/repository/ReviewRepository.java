@@ -1,6 +1,8 @@
 package com.ecommerce.ratingmicroservice.repository;
 
 import com.ecommerce.ratingmicroservice.entity.Review;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReviewRepository extends MongoRepository<Review, String> {
+public interface ReviewRepository extends MongoRepository<Review, String>, ReviewRepositoryCustom {
 
     // Exists check for duplicate (product + user)
     boolean existsByProduct_IdAndUser_Id(String productId, String userId);
@@ -34,4 +36,7 @@ public interface ReviewRepository extends MongoRepository<Review, String> {
     List<Review> findByUser_IdAndStatusOrderByCreatedAtDesc(String userId, Review.Status status);
 
     List<Review> findByProduct_IdAndStatus(String productId, Review.Status status);
+
+    // Paged variant: skip/limit/sort are pushed down to Mongo
+    Page<Review> findByProduct_IdAndStatus(String productId, Review.Status status, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom review operations that need MongoTemplate (aggregations, bulk updates).
+ */
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Computes sum, count and per-star histogram of APPROVED reviews for a product
+     * with a server-side $group, without loading review documents into the application.
+     */
+    RatingDelta computeApprovedRatingTotals(String productId);
+
+    /**
+     * Keyset page of a product's reviews in (createdAt desc, id desc) order,
+     * starting strictly after the given cursor (or from the newest review when cursor is null).
+     */
+    List<Review> findByProductAfter(String productId, Review.Status status, ReviewCursor cursor, int limit);
+
+    /**
+     * Rewrites the denormalized username snapshot on all reviews of a user.
+     *
+     * @return number of review documents changed
+     */
+    long updateUsernameSnapshot(String userId, String username);
+
+    /**
+     * Loads only the fields moderation needs (status, rating, product/user ids) for the given reviews
+     * in one $in query.
+     */
+    List<Review> findModerationStateByIds(Collection<String> reviewIds);
+
+    /**
+     * Moves reviews from {@code expected} to their target status with one unordered bulk write.
+     * Each update is guarded on the expected status, so a review moderated concurrently is not matched.
+     *
+     * @return number of reviews matched
+     */
+    int bulkUpdateStatus(Map<String, Review.Status> targets, Review.Status expected, LocalDateTime updatedAt);
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+
+@RequiredArgsConstructor
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    private static final String COLLECTION = "reviews";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public RatingDelta computeApprovedRatingTotals(String productId) {
+        Aggregation aggregation = newAggregation(
+                match(approvedOfProduct(productId)),
+                group("rating").count().as("count")
+        );
+
+        RatingDelta totals = RatingDelta.empty();
+        for (Document bucket : mongoTemplate.aggregate(aggregation, COLLECTION, Document.class)) {
+            Number rating = bucket.get("_id", Number.class);
+            Number count = bucket.get("count", Number.class);
+            if (rating == null || count == null) {
+                continue;
+            }
+            totals.add(rating.intValue(), count.intValue());
+        }
+        return totals;
+    }
+
+    static Criteria approvedOfProduct(String productId) {
+        return Criteria.where("product.$id").is(toObjectId(productId))
+                .and("status").is(Review.Status.APPROVED.name());
+    }
+
+    @Override
+    public List<Review> findByProductAfter(String productId, Review.Status status, ReviewCursor cursor, int limit) {
+        return mongoTemplate.find(productPageAfter(productId, status, cursor, limit), Review.class);
+    }
+
+    static Query productPageAfter(String productId, Review.Status status, ReviewCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("product.$id").is(toObjectId(productId))
+                .and("status").is(status.name());
+
+        if (cursor != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(cursor.getCreatedAt()),
+                    Criteria.where("createdAt").is(cursor.getCreatedAt())
+                            .and("id").lt(toObjectId(cursor.getId()))
+            );
+        }
+
+        return Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(limit);
+    }
+
+    @Override
+    public long updateUsernameSnapshot(String userId, String username) {
+        return mongoTemplate.updateMulti(staleUsernames(userId, username), Update.update("username", username),
+                        Review.class)
+                .getModifiedCount();
+    }
+
+    static Query staleUsernames(String userId, String username) {
+        return Query.query(Criteria.where("userId").is(userId).and("username").ne(username));
+    }
+
+    @Override
+    public List<Review> findModerationStateByIds(Collection<String> reviewIds) {
+        return mongoTemplate.find(moderationState(reviewIds), Review.class);
+    }
+
+    static Query moderationState(Collection<String> reviewIds) {
+        Query query = Query.query(Criteria.where("id").in(reviewIds));
+        query.fields().include("status", "rating", "productId", "userId", "product", "user");
+        return query;
+    }
+
+    @Override
+    public int bulkUpdateStatus(Map<String, Review.Status> targets, Review.Status expected, LocalDateTime updatedAt) {
+        if (targets.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+        targets.forEach((reviewId, status) -> bulk.updateOne(
+                inStatus(reviewId, expected),
+                new Update().set("status", status).set("updatedAt", updatedAt)
+        ));
+        return bulk.execute().getMatchedCount();
+    }
+
+    static Query inStatus(String reviewId, Review.Status expected) {
+        return Query.query(Criteria.where("id").is(reviewId).and("status").is(expected));
+    }
+
+    // DBRef ids of products/users are stored as ObjectId
+    static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
@@ -1,5 +1,11 @@
 package com.ecommerce.ratingmicroservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ecommerce.ratingmicroservice.timing.RequestTimings;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,13 +20,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 
+/**
+ * Authenticates requests from the Bearer token without touching Mongo:
+ * the token is parsed and verified once, and the principal is built from its
+ * uid/roles/verified claims. Tokens issued before those claims existed fall back
+ * to UserDetailsService through a short-lived principal cache.
+ * Time spent authenticating (not the rest of the chain) is recorded as
+ * auth.jwt.filter{principal=claims|lookup}.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Duration PRINCIPAL_CACHE_TTL = Duration.ofSeconds(60);
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, UserPrincipal> principalCache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(PRINCIPAL_CACHE_TTL)
+            .build();
 
     @Override
     protected void doFilterInternal(
@@ -38,18 +61,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String principalSource = "claims";
+
         jwt = authHeader.substring(7); // "Bearer ".length() = 7
-        userEmail = jwtUtil.extractUsername(jwt);
+        Claims claims = jwtUtil.parseToken(jwt); // signature + expiration verified here, once
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserPrincipal userPrincipal =
-                    (UserPrincipal) userDetailsService.loadUserByUsername(userEmail);
+            UserPrincipal userPrincipal = jwtUtil.toPrincipal(claims);
+            if (userPrincipal == null) {
+                // Loaded outside Caffeine's compute so the Mongo lookup never pins a virtual thread
+                userPrincipal = principalCache.getIfPresent(userEmail);
+                if (userPrincipal == null) {
+                    principalSource = "lookup";
+                    userPrincipal = (UserPrincipal) userDetailsService.loadUserByUsername(userEmail);
+                    principalCache.put(userEmail, userPrincipal);
+                }
+            }
 
             if (!userPrincipal.isEnabled()) {
                 throw new RuntimeException("Email not verified. Please verify.");
             }
 
-            if (jwtUtil.validateToken(jwt, userPrincipal)) {
+            if (userEmail.equals(userPrincipal.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userPrincipal,
                         null,
@@ -59,7 +94,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
+        long nanos = sample.stop(meterRegistry.timer("auth.jwt.filter", "principal", principalSource));
+        RequestTimings.record("jwt", nanos);
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,77 @@
 package com.ecommerce.ratingmicroservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    // Claims that let JwtAuthenticationFilter build the principal without a database lookup
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_VERIFIED = "verified";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once - both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verifies signature and expiration once and returns the claims.
+     * Throws a JwtException (e.g. ExpiredJwtException) for invalid tokens.
+     */
+    public Claims parseToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Builds the principal from token claims, or returns null for tokens issued
+     * before the claims were added (callers then fall back to UserDetailsService).
+     */
+    public UserPrincipal toPrincipal(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        Boolean verified = claims.get(CLAIM_VERIFIED, Boolean.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || verified == null || roles == null) {
+            return null;
+        }
+
+        Set<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toSet());
+
+        return new UserPrincipal(userId, claims.getSubject(), null, verified, authorities);
     }
 
     public String extractUsername(String token) {
@@ -35,24 +83,17 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_ROLES, authorityNames(principal.getAuthorities()));
+            claims.put(CLAIM_VERIFIED, principal.isEmailVerified());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -62,23 +103,26 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
+        // Parsing already rejects bad signatures and expired tokens
+        Claims claims = parseToken(token);
 
-        String username = extractUsername(token);
-
-        if (!username.equals(userDetails.getUsername())) {
-            return false;
-        }
-
-        if (isTokenExpired(token).equals(true)) {
+        if (!claims.getSubject().equals(userDetails.getUsername())) {
             return false;
         }
 
         return userDetails.isEnabled(); // email not verified, user disabled
     }
 
-}
\ No newline at end of file
+    private static List<String> authorityNames(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+}
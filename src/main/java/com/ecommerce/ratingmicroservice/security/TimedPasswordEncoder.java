@@ -0,0 +1,52 @@
+package com.ecommerce.ratingmicroservice.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times hashing and verification of the wrapped encoder (BCrypt), which is deliberately slow
+ * and usually the largest share of a login request:
+ * auth.password{operation=encode|matches, result=ok|mismatch}.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodes;
+    private final Timer matches;
+    private final Timer mismatches;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodes = timer(registry, "encode", "ok");
+        this.matches = timer(registry, "matches", "ok");
+        this.mismatches = timer(registry, "matches", "mismatch");
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation, String result) {
+        return Timer.builder("auth.password")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodes.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean result = delegate.matches(rawPassword, encodedPassword);
+        (result ? matches : mismatches).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
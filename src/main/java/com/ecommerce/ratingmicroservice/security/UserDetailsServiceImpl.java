@@ -2,6 +2,7 @@ package com.ecommerce.ratingmicroservice.security;
 
 import com.ecommerce.ratingmicroservice.entity.User;
 import com.ecommerce.ratingmicroservice.repository.UserRepository;
+import com.ecommerce.ratingmicroservice.timing.RequestTimings;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,8 +23,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        User user;
+        try (RequestTimings.Scope ignored = RequestTimings.time("user")) {
+            user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        }
 
         return new UserPrincipal(
                 user.getId(),
@@ -0,0 +1,134 @@
+package com.ecommerce.ratingmicroservice.service;
+
+import com.ecommerce.ratingmicroservice.pagination.CountMode;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import com.ecommerce.ratingmicroservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the caches behind the busiest read endpoints so a freshly deployed node (or one
+ * behind a flushed Redis) does not send its first minutes of traffic to Mongo cold:
+ * - the first product-list pages in the default order (GET /api/products)
+ * - the most reviewed products (GET /api/products/{id})
+ * - the first review page of each of those (GET /api/reviews/product/{id})
+ *
+ * Runs as an ApplicationRunner, so the node only reports readiness (ACCEPTING_TRAFFIC on
+ * /actuator/health/readiness) once it is done or the timeout has passed. Loads go through the
+ * cached service methods, so cache keys are exactly those of the endpoints' default requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmUp implements ApplicationRunner {
+
+    // Defaults of the list endpoints - keep in sync with ProductController and ReviewController
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final Sort DEFAULT_PRODUCT_SORT = ProductSortKey.ID.sort(Sort.Direction.ASC);
+    private static final Sort DEFAULT_REVIEW_SORT = Sort.by("createdAt");
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final ReviewService reviewService;
+
+    @Value("${app.cache.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warm-up.top-products:100}")
+    private int topProducts;
+
+    @Value("${app.cache.warm-up.product-list-pages:3}")
+    private int productListPages;
+
+    // Concurrent loads - bounds the extra load warm-up puts on Mongo
+    @Value("${app.cache.warm-up.parallelism:4}")
+    private int parallelism;
+
+    // Readiness is not held back longer than this; whatever is not loaded by then stays cold
+    @Value("${app.cache.warm-up.timeout:60s}")
+    private Duration timeout;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Loads the warm-up set and returns the number of entries loaded.
+     * Also exposed to admins for re-running after a Redis flush.
+     */
+    public int warmUp() {
+        long start = System.currentTimeMillis();
+        List<Runnable> loads = new ArrayList<>();
+
+        for (int page = 0; page < productListPages; page++) {
+            PageRequest pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE, DEFAULT_PRODUCT_SORT);
+            loads.add(() -> productService.getAllProducts(pageable, CountMode.EXACT));
+        }
+
+        try {
+            for (String productId : productRepository.findMostReviewedIds(topProducts)) {
+                loads.add(() -> productService.getProductById(productId));
+                loads.add(() -> reviewService.getReviewsByProduct(productId,
+                        PageRequest.of(0, DEFAULT_PAGE_SIZE, DEFAULT_REVIEW_SORT)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up could not list the most reviewed products: {}", e.getMessage());
+        }
+
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Runnable load : loads) {
+            executor.execute(() -> {
+                try {
+                    load.run();
+                    loaded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.debug("Cache warm-up load failed: {}", e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                log.warn("Cache warm-up timed out after {}, continuing with {} of {} entries loaded",
+                        timeout, loaded.get(), loads.size());
+                return loaded.get();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return loaded.get();
+        }
+
+        log.info("Cache warm-up loaded {} entries ({} failed) in {} ms",
+                loaded.get(), failed.get(), System.currentTimeMillis() - start);
+        return loaded.get();
+    }
+}
@@ -0,0 +1,262 @@
+package com.ecommerce.ratingmicroservice.service;
+
+import com.ecommerce.ratingmicroservice.entity.EmailOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers queued emails from the email_outbox collection.
+ *
+ * - The poller claims due messages atomically (findAndModify PENDING -> SENDING with a lease),
+ *   so several nodes can run dispatchers without double sends.
+ * - Claimed messages are sent in batches by a bounded worker pool; each batch goes over one SMTP connection.
+ * - Failures are retried with exponential backoff until max-attempts, then marked FAILED.
+ * - A SENDING message whose lease expired (node died mid-send) is claimed again, unless that was its last
+ *   attempt: claims only take messages with attempts left, and due messages without any are marked FAILED.
+ *   Outcomes are written only while the claim still holds, so a late result cannot overwrite the new owner's.
+ *
+ * Metrics: email.send{outcome=success|partial|failure} times each batch send,
+ * email.messages{outcome=sent|retry|failed} counts messages by result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailService emailService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.email.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${app.email.outbox.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${app.email.outbox.lease:5m}")
+    private Duration lease;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore freeWorkers;
+
+    // Deliberately platform threads, also with spring.threads.virtual.enabled: Jakarta Mail's
+    // Transport connect/send are synchronized and would pin a virtual thread for the whole SMTP exchange
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        freeWorkers = new Semaphore(workers);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Claims as many batches as there are idle workers and hands them over.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:1s}")
+    public void dispatch() {
+        failExhausted();
+        while (freeWorkers.tryAcquire()) {
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.isEmpty()) {
+                freeWorkers.release();
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        List<EmailOutbox> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            LocalDateTime now = LocalDateTime.now();
+            Query due = Query.query(Criteria.where("status")
+                            .in(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING)
+                            .and("nextAttemptAt").lte(now)
+                            .and("attempts").lt(maxAttempts))
+                    .with(Sort.by("nextAttemptAt"));
+            Update claim = new Update()
+                    .set("status", EmailOutbox.Status.SENDING)
+                    .set("nextAttemptAt", now.plus(lease))
+                    .inc("attempts", 1);
+
+            EmailOutbox claimed = mongoTemplate.findAndModify(due, claim,
+                    FindAndModifyOptions.options().returnNew(true), EmailOutbox.class);
+            if (claimed == null) {
+                break;
+            }
+            batch.add(claimed);
+        }
+        return batch;
+    }
+
+    // Due messages the claim query no longer takes: mostly a lease that expired during the last attempt,
+    // which would otherwise be reclaimed (and counted up) forever
+    private void failExhausted() {
+        Query exhausted = Query.query(Criteria.where("status")
+                .in(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING)
+                .and("nextAttemptAt").lte(LocalDateTime.now())
+                .and("attempts").gte(maxAttempts));
+        long failed = mongoTemplate.updateMulti(exhausted,
+                new Update()
+                        .set("status", EmailOutbox.Status.FAILED)
+                        .set("lastError", "No result after " + maxAttempts + " attempts"),
+                EmailOutbox.class).getModifiedCount();
+        if (failed > 0) {
+            meterRegistry.counter("email.messages", "outcome", "failed").increment(failed);
+            log.error("Gave up on {} emails whose last attempt ended without a result", failed);
+        }
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(emailService.buildVerificationEmail(email.getRecipient(), email.getToken()), email);
+            } catch (Exception e) {
+                markFailedAttempt(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            emailService.sendAll(new ArrayList<>(messages.keySet()));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+        String outcome = failures.isEmpty() ? "success"
+                : failures.size() < messages.size() ? "partial" : "failure";
+        sample.stop(meterRegistry.timer("email.send", "outcome", outcome));
+
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                markSent(entry.getValue());
+            } else {
+                markFailedAttempt(entry.getValue(), failure);
+            }
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutbox> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private void markSent(EmailOutbox email) {
+        boolean recorded = mongoTemplate.updateFirst(claimOf(email),
+                new Update()
+                        .set("status", EmailOutbox.Status.SENT)
+                        .set("sentAt", LocalDateTime.now())
+                        .unset("lastError"),
+                EmailOutbox.class).getMatchedCount() > 0;
+        meterRegistry.counter("email.messages", "outcome", "sent").increment();
+        if (recorded) {
+            log.info("Sent {} email {} to {}", email.getType(), email.getId(), email.getRecipient());
+        } else {
+            log.warn("Sent {} email {} to {} after its lease expired; the dispatcher that reclaimed it "
+                    + "may send it again", email.getType(), email.getId(), email.getRecipient());
+        }
+    }
+
+    private void markFailedAttempt(EmailOutbox email, Exception error) {
+        boolean exhausted = email.getAttempts() >= maxAttempts;
+        Update update = new Update()
+                .set("status", exhausted ? EmailOutbox.Status.FAILED : EmailOutbox.Status.PENDING)
+                .set("lastError", String.valueOf(error.getMessage()));
+        if (!exhausted) {
+            update.set("nextAttemptAt", LocalDateTime.now().plus(backoff(email.getAttempts())));
+        }
+        if (mongoTemplate.updateFirst(claimOf(email), update, EmailOutbox.class).getMatchedCount() == 0) {
+            log.warn("Attempt {} of {} email {} failed after its lease expired; leaving it to the dispatcher that "
+                    + "reclaimed it: {}", email.getAttempts(), email.getType(), email.getId(), error.getMessage());
+            return;
+        }
+        meterRegistry.counter("email.messages", "outcome", exhausted ? "failed" : "retry").increment();
+
+        if (exhausted) {
+            log.error("Giving up on {} email {} to {} after {} attempts",
+                    email.getType(), email.getId(), email.getRecipient(), email.getAttempts(), error);
+        } else {
+            log.warn("Attempt {} of {} email {} failed: {}",
+                    email.getAttempts(), email.getType(), email.getId(), error.getMessage());
+        }
+    }
+
+    // initial * 2^(attempt - 1), capped at max-backoff
+    private Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // Matches only while our claim holds: every claim increments attempts, so once the lease expired and another
+    // dispatcher reclaimed the message, our outcome no longer overwrites the state that dispatcher owns
+    private static Query claimOf(EmailOutbox email) {
+        return Query.query(Criteria.where("id").is(email.getId())
+                .and("status").is(EmailOutbox.Status.SENDING)
+                .and("attempts").is(email.getAttempts()));
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
@@ -21,6 +23,10 @@ public class EmailService {
     private String frontendUrl;
 
     public void sendVerificationEmail(String to, String token) throws MessagingException {
+        mailSender.send(buildVerificationEmail(to, token));
+    }
+
+    public MimeMessage buildVerificationEmail(String to, String token) throws MessagingException {
         String subject = "Verify Your Email Address";
         String verificationUrl = frontendUrl + "/verify-email?token=" + token;
 
@@ -36,6 +42,14 @@ public class EmailService {
         helper.setSubject(subject);
         helper.setText(htmlContent, true); // true = HTML
 
-        mailSender.send(message);
+        return message;
+    }
+
+    /**
+     * Sends several messages over a single SMTP connection.
+     * Throws MailSendException whose failed messages identify the ones that were not delivered.
+     */
+    public void sendAll(List<MimeMessage> messages) {
+        mailSender.send(messages.toArray(new MimeMessage[0]));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.ratingmicroservice.service;
+
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.mapper.ReviewMapperUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams products and reviews as NDJSON straight from a Mongo cursor.
+ * Documents are fetched in cursor batches of CURSOR_BATCH_SIZE and written as they arrive,
+ * so heap use does not grow with the collection size.
+ *
+ * Incremental exports pass updatedSince (inclusive); re-exported rows are expected to be
+ * upserted by id on the consumer side.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+    private static final byte NEWLINE = '\n';
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectWriter writer;
+
+    public ExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Write reviews as ReviewResponse lines (product/user ids and username come from the
+     * embedded snapshot, no DBRef is resolved)
+     */
+    public long exportReviews(Review.Status status, LocalDateTime updatedSince, OutputStream out) {
+        return export(reviewsQuery(status, updatedSince), Review.class, ReviewMapperUtil::toResponse, out);
+    }
+
+    public static Query reviewsQuery(Review.Status status, LocalDateTime updatedSince) {
+        Criteria criteria = new Criteria();
+        if (status != null) {
+            criteria = criteria.and("status").is(status);
+        }
+        if (updatedSince != null) {
+            criteria = criteria.and("updatedAt").gte(updatedSince);
+        }
+        return Query.query(criteria);
+    }
+
+    /**
+     * Write products as stored, including rating counters and updatedAt
+     */
+    public long exportProducts(LocalDateTime updatedSince, OutputStream out) {
+        return export(productsQuery(updatedSince), Product.class, Function.identity(), out);
+    }
+
+    public static Query productsQuery(LocalDateTime updatedSince) {
+        Criteria criteria = new Criteria();
+        if (updatedSince != null) {
+            criteria = criteria.and("updatedAt").gte(updatedSince);
+        }
+        return Query.query(criteria);
+    }
+
+    private <T> long export(Query query, Class<T> type, Function<T, ?> mapper, OutputStream out) {
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        long written = 0;
+        try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+            for (T document : (Iterable<T>) documents::iterator) {
+                out.write(writer.writeValueAsBytes(mapper.apply(document)));
+                out.write(NEWLINE);
+                written++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Usually the client went away; closing the stream above releases the server cursor
+            throw new UncheckedIOException("Export of " + type.getSimpleName() + " aborted after " + written + " rows", e);
+        }
+
+        log.info("Exported {} {} documents", written, type.getSimpleName());
+        return written;
+    }
+}
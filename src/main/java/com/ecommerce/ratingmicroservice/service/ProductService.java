@@ -1,23 +1,42 @@
 package com.ecommerce.ratingmicroservice.service;
 
+import com.ecommerce.ratingmicroservice.cache.ApproximateCounts;
 import com.ecommerce.ratingmicroservice.dto.request.ProductRequest;
 import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
 import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.RatingSummaryResponse;
 import com.ecommerce.ratingmicroservice.entity.Product;
 import com.ecommerce.ratingmicroservice.mapper.ProductMapperUtil;
+import com.ecommerce.ratingmicroservice.pagination.CountMode;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
 import com.ecommerce.ratingmicroservice.repository.ProductRepository;
+import com.ecommerce.ratingmicroservice.repository.RatingDelta;
+import com.ecommerce.ratingmicroservice.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Product service with Redis caching layer.
@@ -29,7 +48,13 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ProductService {
 
+    // Transaction resource key for the products whose rating caches are evicted on commit
+    private static final Object PENDING_RATING_EVICTIONS = new Object();
+
     private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final ApproximateCounts approximateCounts;
+    private final CacheManager cacheManager;
 
     /**
      * Create product - evicts all list/search caches since new product affects results
@@ -66,6 +91,7 @@ public class ProductService {
         existing.setCategory(request.getCategory());
         existing.setPrice(request.getPrice());
         existing.setImageUrl(request.getImageUrl());
+        existing.setUpdatedAt(LocalDateTime.now());
 
         Product updated = productRepository.save(existing);
         log.info("Updated product with ID: {}", id);
@@ -78,6 +104,7 @@ public class ProductService {
      */
     @Caching(evict = {
             @CacheEvict(value = "products", key = "#id"),
+            @CacheEvict(value = "products", key = "#id + ':rating-summary'"),
             @CacheEvict(value = "productList", allEntries = true),
             @CacheEvict(value = "productSearch", allEntries = true)
     })
@@ -91,7 +118,7 @@ public class ProductService {
      * Get product by ID - cached with simple key
      * Cache key: products::<productId>
      */
-    @Cacheable(value = "products", key = "#id", unless = "#result == null")
+    @Cacheable(value = "products", key = "#id", sync = true)
     public ProductResponse getProductById(String id) {
         log.debug("Fetching product from DB: {}", id);
 
@@ -103,62 +130,175 @@ public class ProductService {
 
     /**
      * Get all products with pagination - cached with deterministic key
-     * Cache key: productList::<page>:<size>:<sortBy>:<direction>
+     * Cache key: productList::<page>:<size>:<sortBy>:<direction>:<countMode>
      *
      * Note: We cache PageResponse<ProductResponse>, not Spring's Page
+     * NONE/APPROXIMATE skip the count query; APPROXIMATE reports the collection's estimated size
+     * When sorted by a ProductSortKey, the response carries a nextCursor for switching to keyset paging
      */
     @Cacheable(
             value = "productList",
             key = "#pageable.pageNumber + ':' + #pageable.pageSize + ':' + " +
-                    "#pageable.sort.toString()",
-            unless = "#result == null || #result.empty"
+                    "#pageable.sort.toString() + ':' + #countMode",
+            sync = true
     )
-    public PageResponse<ProductResponse> getAllProducts(Pageable pageable) {
-        log.debug("Fetching product list from DB: page={}, size={}, sort={}",
-                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+    public PageResponse<ProductResponse> getAllProducts(Pageable pageable, CountMode countMode) {
+        log.debug("Fetching product list from DB: page={}, size={}, sort={}, count={}",
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), countMode);
 
-        Page<Product> productPage = productRepository.findAll(pageable);
+        if (countMode == CountMode.EXACT) {
+            Page<Product> productPage = productRepository.findAll(pageable);
 
-        // Convert MongoDB entities to DTOs
-        Page<ProductResponse> responsePage = productPage.map(ProductResponse::from);
+            // Convert MongoDB entities to DTOs
+            Page<ProductResponse> responsePage = productPage.map(ProductResponse::from);
 
-        // Convert Spring Page to cacheable PageResponse
-        return PageResponse.from(responsePage);
+            // Convert Spring Page to cacheable PageResponse
+            return withNextCursor(PageResponse.from(responsePage), pageable.getSort());
+        }
+
+        Slice<ProductResponse> slice = productRepository.findAllBy(pageable).map(ProductResponse::from);
+        long total = countMode == CountMode.APPROXIMATE
+                ? approximateCounts.get("products:all", productRepository::estimatedCount)
+                : -1;
+        return withNextCursor(PageResponse.fromSlice(slice, total), pageable.getSort());
+    }
+
+    /**
+     * Get products after a keyset cursor - constant cost regardless of depth
+     * Cache key: productList::after:<cursor>:<size>
+     *
+     * Sort key and direction come from the cursor, so every page continues the order it started with
+     */
+    @Cacheable(
+            value = "productList",
+            key = "'after:' + #after + ':' + #size",
+            sync = true
+    )
+    public PageResponse<ProductResponse> getProductsAfter(String after, int size) {
+        log.debug("Fetching product list from DB: after={}, size={}", after, size);
+
+        ProductCursor cursor = ProductCursor.decode(after);
+
+        // Fetch one extra row to know whether another page exists
+        List<Product> products = productRepository.findAfter(
+                cursor.getSortKey(), cursor.getDirection(), cursor, size + 1
+        );
+
+        boolean hasNext = products.size() > size;
+        List<ProductResponse> content = products.stream()
+                .limit(size)
+                .map(ProductResponse::from)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext
+                ? ProductCursor.after(content.get(content.size() - 1), cursor.getSortKey(), cursor.getDirection()).encode()
+                : null;
+        return PageResponse.ofCursor(content, size, false, nextCursor);
+    }
+
+    private static PageResponse<ProductResponse> withNextCursor(PageResponse<ProductResponse> page, Sort sort) {
+        Sort.Order primary = sort.stream().findFirst().orElse(null);
+        if (page.isLast() || page.getContent().isEmpty() || primary == null) {
+            return page;
+        }
+        ProductSortKey.fromProperty(primary.getProperty()).ifPresent(sortKey -> {
+            ProductResponse last = page.getContent().get(page.getContent().size() - 1);
+            page.setNextCursor(ProductCursor.after(last, sortKey, primary.getDirection()).encode());
+        });
+        return page;
+    }
+
+    /**
+     * Get star distribution, average and count for a product - cached next to the product
+     * Cache key: products::<productId>:rating-summary
+     *
+     * Served from the counters maintained on the review write path; never scans reviews.
+     * Products written before the histogram existed are rebuilt by RatingAggregatesMigration
+     * (which evicts this entry), not on this read path.
+     */
+    @Cacheable(value = "products", key = "#id + ':rating-summary'", sync = true)
+    public RatingSummaryResponse getRatingSummary(String id) {
+        log.debug("Fetching rating summary from DB: {}", id);
+
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
+
+        return RatingSummaryResponse.from(product);
     }
 
     /**
      * Search products with flexible criteria - cached with all parameters
-     * Cache key: productSearch::<name>:<category>:<minPrice>:<maxPrice>:<page>:<size>:<sort>
+     * Cache key: productSearch::<q>:<name>:<category>:<minPrice>:<maxPrice>:<page>:<size>:<sort>:<countMode>
      *
      * Includes all query filters and pagination params for deterministic cache hits
+     *
+     * With q: full-text search on the products text index, ranked by relevance (unless sorted
+     * explicitly), category matched exactly and price range applied on top.
+     * Without q: substring match on name/category (user input is matched literally).
+     *
+     * NONE/APPROXIMATE skip the per-page count; APPROXIMATE reuses a total counted at most
+     * once per app.cache.approximate-count-ttl for the same filter
      */
     @Cacheable(
             value = "productSearch",
-            key = "(#name ?: 'null') + ':' + " +
+            key = "(#q ?: 'null') + ':' + " +
+                    "(#name ?: 'null') + ':' + " +
                     "(#category ?: 'null') + ':' + " +
                     "(#minPrice ?: 'null') + ':' + " +
                     "(#maxPrice ?: 'null') + ':' + " +
                     "#pageable.pageNumber + ':' + " +
                     "#pageable.pageSize + ':' + " +
-                    "#pageable.sort.toString()",
-            unless = "#result == null || #result.empty"
+                    "#pageable.sort.toString() + ':' + " +
+                    "#countMode",
+            sync = true
     )
     public PageResponse<ProductResponse> searchProducts(
+            String q,
             String name,
             String category,
             BigDecimal minPrice,
             BigDecimal maxPrice,
-            Pageable pageable) {
+            Pageable pageable,
+            CountMode countMode) {
+
+        log.debug("Searching products from DB: q={}, name={}, category={}, minPrice={}, maxPrice={}, count={}",
+                q, name, category, minPrice, maxPrice, countMode);
 
-        log.debug("Searching products from DB: name={}, category={}, minPrice={}, maxPrice={}",
-                name, category, minPrice, maxPrice);
+        String countKey = "productSearch:" + q + ":" + name + ":" + category + ":" + minPrice + ":" + maxPrice;
 
-        String nameRegex = (name != null && !name.trim().isEmpty()) ? name : "";
-        String categoryRegex = (category != null && !category.trim().isEmpty()) ? category : "";
+        if (q != null && !q.isBlank()) {
+            if (countMode == CountMode.EXACT) {
+                Page<Product> matches = productRepository.textSearch(q, category, minPrice, maxPrice, pageable);
+                return PageResponse.from(matches.map(ProductResponse::from));
+            }
+            Slice<ProductResponse> slice = productRepository
+                    .textSearchSlice(q, category, minPrice, maxPrice, pageable)
+                    .map(ProductResponse::from);
+            long total = countMode == CountMode.APPROXIMATE
+                    ? approximateCounts.get(countKey,
+                            () -> productRepository.countTextSearch(q, category, minPrice, maxPrice))
+                    : -1;
+            return PageResponse.fromSlice(slice, total);
+        }
+
+        // Quoted so user input is matched literally instead of being run as a pattern
+        String nameRegex = (name != null && !name.trim().isEmpty()) ? Pattern.quote(name) : "";
+        String categoryRegex = (category != null && !category.trim().isEmpty()) ? Pattern.quote(category) : "";
 
         BigDecimal lower = Optional.ofNullable(minPrice).orElse(BigDecimal.ZERO);
         BigDecimal upper = Optional.ofNullable(maxPrice).orElse(BigDecimal.valueOf(Long.MAX_VALUE));
 
+        if (countMode != CountMode.EXACT) {
+            Slice<ProductResponse> slice = productRepository
+                    .searchProductsSlice(nameRegex, categoryRegex, lower, upper, pageable)
+                    .map(ProductResponse::from);
+            long total = countMode == CountMode.APPROXIMATE
+                    ? approximateCounts.get(countKey,
+                            () -> productRepository.countSearchProducts(nameRegex, categoryRegex, lower, upper))
+                    : -1;
+            return PageResponse.fromSlice(slice, total);
+        }
+
         Page<Product> productPage = productRepository.searchProducts(
                 nameRegex, categoryRegex, lower, upper, pageable
         );
@@ -174,7 +314,10 @@ public class ProductService {
      * Internal method for updating product ratings (called by ReviewService)
      * Evicts the specific product cache to ensure fresh data on next fetch
      */
-    @CacheEvict(value = "products", key = "#productId")
+    @Caching(evict = {
+            @CacheEvict(value = "products", key = "#productId"),
+            @CacheEvict(value = "products", key = "#productId + ':rating-summary'")
+    })
     @Transactional
     public void updateProductRating(String productId, Double averageRating, Integer totalReviews) {
         Product product = productRepository.findById(productId)
@@ -182,9 +325,120 @@ public class ProductService {
 
         product.setAverageRating(averageRating);
         product.setTotalReviews(totalReviews);
+        product.setUpdatedAt(LocalDateTime.now());
         productRepository.save(product);
 
         log.info("Updated rating for product {}: avg={}, total={}",
                 productId, averageRating, totalReviews);
     }
-}
\ No newline at end of file
+
+    /**
+     * Internal method for applying a review state transition to the product's rating
+     * aggregates (called by ReviewService). Single atomic update, independent of review volume.
+     * Evicts the rating caches once the caller's transaction commits (evictRatingAfterCommit)
+     */
+    public void applyRatingDelta(String productId, RatingDelta delta) {
+        evictRatingAfterCommit(productId);
+        if (productRepository.applyRatingDelta(productId, delta)) {
+            log.info("Applied rating delta to product {}: {}", productId, delta);
+            return;
+        }
+
+        // Aggregates missing or inconsistent (legacy product): rebuild from the reviews instead. Callers save the
+        // review change before applying its delta, in the same transaction, so the rebuild already includes it.
+        if (rebuildIfNeeded(productId)) {
+            return;
+        }
+
+        // Initialized concurrently (migration or another write) - the delta applies now
+        if (!productRepository.applyRatingDelta(productId, delta)) {
+            throw new IllegalArgumentException("Product not found with id: " + productId);
+        }
+        log.info("Applied rating delta to product {}: {}", productId, delta);
+    }
+
+    /**
+     * Rebuilds the rating aggregates of a product written before rating_sum/rating_histogram existed
+     * (or left inconsistent by an unguarded delta); no-op for products that are already consistent.
+     * Evicts the rating caches after commit when it rebuilt them
+     *
+     * @return true if the aggregates were rebuilt
+     */
+    public boolean initializeRatingAggregates(String productId) {
+        if (!rebuildIfNeeded(productId)) {
+            return false;
+        }
+        evictRatingAfterCommit(productId);
+        return true;
+    }
+
+    private boolean rebuildIfNeeded(String productId) {
+        RatingDelta totals = reviewRepository.computeApprovedRatingTotals(productId);
+        if (!productRepository.initializeRatingAggregates(productId, totals)) {
+            return false;
+        }
+        log.info("Initialized rating aggregates for product {} from its reviews: {}", productId, totals);
+        return true;
+    }
+
+    /**
+     * Internal method for overwriting rating aggregates after a full rebuild
+     * Evicts the rating caches once the caller's transaction commits (evictRatingAfterCommit)
+     */
+    public void replaceRatingAggregates(String productId, RatingDelta totals) {
+        if (!productRepository.replaceRatingAggregates(productId, totals)) {
+            throw new IllegalArgumentException("Product not found with id: " + productId);
+        }
+        evictRatingAfterCommit(productId);
+        log.info("Rebuilt rating aggregates for product {}: {}", productId, totals);
+    }
+
+    /*
+     * Evicting before the caller's transaction commits would let a concurrent reader miss, read the old rating
+     * and cache it for the full TTL, so this runs after commit like CacheGenerations.bumpAfterCommit.
+     * List and search pages embed averageRating/totalReviews, so they are cleared as well - once per
+     * transaction, however many products it touched (bulk moderation).
+     */
+    private void evictRatingAfterCommit(String productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictRatings(Set.of(productId));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_RATING_EVICTIONS);
+        if (pending == null) {
+            Set<String> productIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_RATING_EVICTIONS, productIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictRatings(productIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_RATING_EVICTIONS);
+                }
+            });
+            pending = productIds;
+        }
+        pending.add(productId);
+    }
+
+    private void evictRatings(Set<String> productIds) {
+        Cache products = cacheManager.getCache("products");
+        if (products != null) {
+            for (String productId : productIds) {
+                products.evict(productId);
+                products.evict(productId + ":rating-summary");
+            }
+        }
+        for (String pages : List.of("productList", "productSearch")) {
+            Cache cache = cacheManager.getCache(pages);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.ecommerce.ratingmicroservice.service;
+
+import com.ecommerce.ratingmicroservice.cache.CacheGenerations;
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.mapper.ReviewMapperUtil;
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
+import com.ecommerce.ratingmicroservice.repository.ReactiveProductRepository;
+import com.ecommerce.ratingmicroservice.repository.ReactiveReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Non-blocking read path for product and review browsing.
+ * Same caches as ProductService/ReviewService (served through Cache.retrieve, so a Redis hit
+ * does not hold a thread either); cursor pages share their cache keys with the MVC endpoints.
+ * Review pages are not @Cacheable: their key contains the product's cache generation, and a SpEL key
+ * would look it up with a blocking GET on the request thread. They resolve it with
+ * CacheGenerations.forProductReactive and build the key inside the chain instead.
+ * Never counts: offset pages are slices (totals are -1, use "last" / nextCursor).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveReadService {
+
+    private static final Sort REVIEW_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final String REVIEWS_BY_PRODUCT = "reviewsByProduct";
+
+    private final ReactiveProductRepository productRepository;
+    private final ReactiveReviewRepository reviewRepository;
+    private final CacheManager cacheManager;
+    private final CacheGenerations cacheGenerations;
+
+    /**
+     * Get product by ID - same entry as ProductService.getProductById
+     * Cache key: products::<productId>
+     */
+    @Cacheable(value = "products", key = "#id")
+    public Mono<ProductResponse> getProductById(String id) {
+        log.debug("Fetching product from DB (reactive): {}", id);
+
+        return productRepository.findById(id)
+                .map(ProductResponse::from)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Product not found with id: " + id)));
+    }
+
+    /**
+     * Get a slice of products in a whitelisted order
+     * Cache key: productList::read:<sortKey>:<direction>:<page>:<size>
+     */
+    @Cacheable(
+            value = "productList",
+            key = "'read:' + #sortKey + ':' + #direction + ':' + #page + ':' + #size",
+            unless = "#result == null || #result.empty"
+    )
+    public Mono<PageResponse<ProductResponse>> getProducts(ProductSortKey sortKey, Sort.Direction direction,
+                                                           int page, int size) {
+        log.debug("Fetching product slice from DB (reactive): sort={} {}, page={}, size={}",
+                sortKey, direction, page, size);
+
+        Pageable pageable = PageRequest.of(page, size, sortKey.sort(direction));
+        return toSlice(productRepository.findSlice(pageable), pageable, ProductResponse::from)
+                .map(slice -> withNextCursor(slice, sortKey, direction));
+    }
+
+    /**
+     * Get products after a keyset cursor - same entry as ProductService.getProductsAfter
+     * Cache key: productList::after:<cursor>:<size>
+     */
+    @Cacheable(
+            value = "productList",
+            key = "'after:' + #after + ':' + #size",
+            unless = "#result == null || #result.empty"
+    )
+    public Mono<PageResponse<ProductResponse>> getProductsAfter(String after, int size) {
+        log.debug("Fetching product list from DB (reactive): after={}, size={}", after, size);
+
+        ProductCursor cursor = ProductCursor.decode(after);
+        return productRepository.findAfter(cursor.getSortKey(), cursor.getDirection(), cursor, size + 1)
+                .map(ProductResponse::from)
+                .collectList()
+                .map(products -> {
+                    boolean hasNext = products.size() > size;
+                    List<ProductResponse> content = new ArrayList<>(hasNext ? products.subList(0, size) : products);
+                    String nextCursor = hasNext
+                            ? ProductCursor.after(content.get(content.size() - 1),
+                                    cursor.getSortKey(), cursor.getDirection()).encode()
+                            : null;
+                    return PageResponse.ofCursor(content, size, false, nextCursor);
+                });
+    }
+
+    /**
+     * Search products - same filters as ProductService.searchProducts, as a slice
+     * Cache key: productSearch::read:<q>:<name>:<category>:<minPrice>:<maxPrice>:<page>:<size>:<sort>
+     */
+    @Cacheable(
+            value = "productSearch",
+            key = "'read:' + (#q ?: 'null') + ':' + " +
+                    "(#name ?: 'null') + ':' + " +
+                    "(#category ?: 'null') + ':' + " +
+                    "(#minPrice ?: 'null') + ':' + " +
+                    "(#maxPrice ?: 'null') + ':' + " +
+                    "#pageable.pageNumber + ':' + " +
+                    "#pageable.pageSize + ':' + " +
+                    "#pageable.sort.toString()",
+            unless = "#result == null || #result.empty"
+    )
+    public Mono<PageResponse<ProductResponse>> searchProducts(String q, String name, String category,
+                                                              BigDecimal minPrice, BigDecimal maxPrice,
+                                                              Pageable pageable) {
+        log.debug("Searching products from DB (reactive): q={}, name={}, category={}, minPrice={}, maxPrice={}",
+                q, name, category, minPrice, maxPrice);
+
+        if (q != null && !q.isBlank()) {
+            return toSlice(productRepository.textSearchSlice(q, category, minPrice, maxPrice, pageable),
+                    pageable, ProductResponse::from);
+        }
+
+        // Quoted so user input is matched literally instead of being run as a pattern
+        String nameRegex = (name != null && !name.trim().isEmpty()) ? Pattern.quote(name) : "";
+        String categoryRegex = (category != null && !category.trim().isEmpty()) ? Pattern.quote(category) : "";
+        BigDecimal lower = minPrice != null ? minPrice : BigDecimal.ZERO;
+        BigDecimal upper = maxPrice != null ? maxPrice : BigDecimal.valueOf(Long.MAX_VALUE);
+
+        return toSlice(productRepository.searchSlice(nameRegex, categoryRegex, lower, upper, pageable),
+                pageable, ProductResponse::from);
+    }
+
+    /**
+     * Get a slice of a product's APPROVED reviews, newest first
+     * Cache key: reviewsByProduct::<productId>:v<generation>:read:<page>:<size>
+     */
+    public Mono<PageResponse<ReviewResponse>> getReviewsByProduct(String productId, int page, int size) {
+        return cachedReviewPage(productId, "read:" + page + ":" + size, () -> {
+            log.debug("Fetching reviews from DB (reactive) for product: {}, page={}, size={}", productId, page, size);
+
+            Pageable pageable = PageRequest.of(page, size, REVIEW_ORDER);
+            return toSlice(reviewRepository.findSliceByProduct(productId, Review.Status.APPROVED, pageable),
+                    pageable, ReviewMapperUtil::toResponse)
+                    .map(slice -> {
+                        if (!slice.isLast()) {
+                            slice.setNextCursor(cursorOf(slice.getContent().get(slice.getContent().size() - 1)));
+                        }
+                        return slice;
+                    });
+        });
+    }
+
+    /**
+     * Get reviews by product after a keyset cursor - same entry as ReviewService.getReviewsByProductAfter
+     * Cache key: reviewsByProduct::<productId>:v<generation>:after:<cursor>:<size>
+     */
+    public Mono<PageResponse<ReviewResponse>> getReviewsByProductAfter(String productId, String after, int size) {
+        ReviewCursor cursor = ReviewCursor.decode(after);
+
+        return cachedReviewPage(productId, "after:" + after + ":" + size, () -> {
+            log.debug("Fetching reviews from DB (reactive) for product: {}, after={}, size={}",
+                    productId, after, size);
+
+            return reviewRepository.findByProductAfter(productId, Review.Status.APPROVED, cursor, size + 1)
+                    .map(ReviewMapperUtil::toResponse)
+                    .collectList()
+                    .map(reviews -> {
+                        boolean hasNext = reviews.size() > size;
+                        List<ReviewResponse> content = new ArrayList<>(hasNext ? reviews.subList(0, size) : reviews);
+                        String nextCursor = hasNext ? cursorOf(content.get(content.size() - 1)) : null;
+                        return PageResponse.ofCursor(content, size, false, nextCursor);
+                    });
+        });
+    }
+
+    /*
+     * <productId>:v<generation>:<suffix> in reviewsByProduct, with the generation looked up without blocking.
+     * Cache.retrieve(key, loader) stores what the loader produced asynchronously, like the MVC methods'
+     * sync = true entries - empty pages included, which a generation bump makes unreachable anyway.
+     */
+    private <T> Mono<T> cachedReviewPage(String productId, String suffix, Supplier<Mono<T>> loader) {
+        Cache cache = cacheManager.getCache(REVIEWS_BY_PRODUCT);
+        if (cache == null) {
+            return loader.get();
+        }
+        return cacheGenerations.forProductReactive(productId)
+                .flatMap(generation -> Mono.fromFuture(() -> cache.retrieve(
+                        productId + ":v" + generation + ":" + suffix, () -> loader.get().toFuture())));
+    }
+
+    // Rows come back as pageSize + 1; the extra row only signals that a next page exists
+    private static <E, T> Mono<PageResponse<T>> toSlice(Flux<E> rows, Pageable pageable, Function<E, T> mapper) {
+        return rows.map(mapper)
+                .collectList()
+                .map(content -> {
+                    boolean hasNext = content.size() > pageable.getPageSize();
+                    List<T> page = new ArrayList<>(hasNext ? content.subList(0, pageable.getPageSize()) : content);
+                    return PageResponse.fromSlice(new SliceImpl<>(page, pageable, hasNext), -1);
+                });
+    }
+
+    private static PageResponse<ProductResponse> withNextCursor(PageResponse<ProductResponse> slice,
+                                                                ProductSortKey sortKey, Sort.Direction direction) {
+        if (!slice.isLast() && !slice.getContent().isEmpty()) {
+            ProductResponse last = slice.getContent().get(slice.getContent().size() - 1);
+            slice.setNextCursor(ProductCursor.after(last, sortKey, direction).encode());
+        }
+        return slice;
+    }
+
+    private static String cursorOf(ReviewResponse review) {
+        return new ReviewCursor(review.getCreatedAt(), review.getId()).encode();
+    }
+}
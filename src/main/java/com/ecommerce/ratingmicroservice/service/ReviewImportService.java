@@ -0,0 +1,286 @@
+package com.ecommerce.ratingmicroservice.service;
+
+import com.ecommerce.ratingmicroservice.cache.CacheGenerations;
+import com.ecommerce.ratingmicroservice.config.MongoIndexManager;
+import com.ecommerce.ratingmicroservice.dto.request.ReviewImportLine;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewImportResponse;
+import com.ecommerce.ratingmicroservice.entity.Product;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import com.ecommerce.ratingmicroservice.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of reviews from NDJSON (one JSON object per line), for migrations from other platforms.
+ *
+ * The body is read line by line and handled in chunks of CHUNK_SIZE: one products lookup,
+ * one users lookup and one unordered bulk insert per chunk, so memory stays bounded by the chunk
+ * (plus the set of products with imported APPROVED reviews) regardless of file size.
+ * Duplicates (same product + user) are rejected by the unique review index and reported per line.
+ * The import refuses to start without that index: MongoIndexManager only warns when it cannot be created
+ * (e.g. the collection already holds duplicates), and the bulk insert would then write them silently.
+ * Product rating aggregates are rebuilt once per affected product after the last chunk.
+ *
+ * Not transactional: lines that were inserted stay inserted if a later chunk fails. The rebuild
+ * still runs in that case, so the aggregates match whatever was inserted before the failure.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReviewService reviewService;
+    private final CacheGenerations cacheGenerations;
+
+    public ReviewImportResponse importReviews(InputStream body) throws IOException {
+        requireUniqueReviewIndex();
+
+        ReviewImportResponse response = new ReviewImportResponse();
+        Set<String> approvedProducts = new HashSet<>();
+        boolean completed = false;
+        try {
+            readChunks(body, response, approvedProducts);
+            completed = true;
+        } finally {
+            rebuildRatings(approvedProducts, completed);
+        }
+
+        log.info("Review import finished: {} lines, {} imported, {} failed, {} products rebuilt",
+                response.getLines(), response.getImported(), response.getFailed(), approvedProducts.size());
+        return response;
+    }
+
+    private void requireUniqueReviewIndex() {
+        boolean present = mongoTemplate.indexOps(Review.class).getIndexInfo().stream()
+                .anyMatch(index -> index.isUnique()
+                        && MongoIndexManager.REVIEW_PRODUCT_USER_UNIQUE_INDEX.equals(index.getName()));
+        if (!present) {
+            throw new IllegalStateException("Review import needs the unique index "
+                    + MongoIndexManager.REVIEW_PRODUCT_USER_UNIQUE_INDEX
+                    + " on reviews to reject duplicates; remove the duplicate reviews and restart to create it");
+        }
+    }
+
+    private void readChunks(InputStream body, ReviewImportResponse response, Set<String> approvedProducts)
+            throws IOException {
+        List<NumberedLine> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                response.setLines(response.getLines() + 1);
+
+                try {
+                    chunk.add(new NumberedLine(lineNumber, objectMapper.readValue(line, ReviewImportLine.class)));
+                } catch (JsonProcessingException e) {
+                    response.addError(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, response, approvedProducts);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, response, approvedProducts);
+        }
+    }
+
+    /**
+     * Once per product instead of once per review. After a failed import every product is still attempted
+     * and rebuild errors are only logged, so they don't replace the exception that aborted the import.
+     */
+    private void rebuildRatings(Set<String> approvedProducts, boolean completed) {
+        RuntimeException failure = null;
+        for (String productId : approvedProducts) {
+            try {
+                reviewService.rebuildProductRating(productId);
+                cacheGenerations.bumpProduct(productId);
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild rating aggregates for product {} after review import", productId, e);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (completed && failure != null) {
+            throw failure;
+        }
+    }
+
+    private void importChunk(List<NumberedLine> chunk, ReviewImportResponse response, Set<String> approvedProducts) {
+        Set<String> knownProducts = findExistingProducts(chunk);
+        Map<String, String> usernames = findUsernames(chunk);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<NumberedLine> accepted = new ArrayList<>(chunk.size());
+        List<Review> reviews = new ArrayList<>(chunk.size());
+
+        for (NumberedLine numbered : chunk) {
+            ReviewImportLine line = numbered.line();
+            String error = validate(line, knownProducts, usernames);
+            if (error != null) {
+                response.addError(numbered.number(), error);
+                continue;
+            }
+            accepted.add(numbered);
+            reviews.add(toReview(line, usernames.get(line.getUserId()), now));
+        }
+
+        if (reviews.isEmpty()) {
+            return;
+        }
+
+        // Recorded before the insert: if execute() fails outright some of the chunk may still have been written,
+        // and rebuilding a product that received nothing is harmless
+        for (Review review : reviews) {
+            if (review.getStatus() == Review.Status.APPROVED) {
+                approvedProducts.add(review.getProductId());
+            }
+        }
+
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class)
+                    .insert(reviews)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError writeError : e.getErrors()) {
+                failedIndexes.add(writeError.getIndex());
+                response.addError(accepted.get(writeError.getIndex()).number(),
+                        writeError.getCode() == DUPLICATE_KEY
+                                ? "Review for this product and user already exists"
+                                : writeError.getMessage());
+            }
+        }
+
+        Set<String> touchedUsers = new HashSet<>();
+        for (int i = 0; i < reviews.size(); i++) {
+            if (failedIndexes.contains(i)) {
+                continue;
+            }
+            Review review = reviews.get(i);
+            response.setImported(response.getImported() + 1);
+            touchedUsers.add(review.getUserId());
+        }
+        touchedUsers.forEach(cacheGenerations::bumpUser);
+    }
+
+    private static String validate(ReviewImportLine line, Set<String> knownProducts, Map<String, String> usernames) {
+        if (line.getProductId() == null || line.getProductId().isBlank()) {
+            return "productId is required";
+        }
+        if (line.getUserId() == null || line.getUserId().isBlank()) {
+            return "userId is required";
+        }
+        if (line.getRating() == null || line.getRating() < 1 || line.getRating() > 5) {
+            return "rating must be between 1 and 5";
+        }
+        if (line.getComment() == null || line.getComment().isBlank()) {
+            return "comment is required";
+        }
+        if (!knownProducts.contains(line.getProductId())) {
+            return "Product not found: " + line.getProductId();
+        }
+        if (!usernames.containsKey(line.getUserId())) {
+            return "User not found: " + line.getUserId();
+        }
+        return null;
+    }
+
+    private static Review toReview(ReviewImportLine line, String username, LocalDateTime now) {
+        // Id-only references: the DBRef is written from the id, nothing is resolved
+        Product product = new Product();
+        product.setId(line.getProductId());
+        User user = new User();
+        user.setId(line.getUserId());
+
+        LocalDateTime createdAt = line.getCreatedAt() != null ? line.getCreatedAt() : now;
+
+        Review review = new Review();
+        review.setProduct(product);
+        review.setUser(user);
+        review.setProductId(line.getProductId());
+        review.setUserId(line.getUserId());
+        review.setUsername(username);
+        review.setRating(line.getRating());
+        review.setComment(line.getComment());
+        review.setStatus(line.getStatus() != null ? line.getStatus() : Review.Status.PENDING);
+        review.setCreatedAt(createdAt);
+        review.setUpdatedAt(createdAt);
+        return review;
+    }
+
+    private Set<String> findExistingProducts(List<NumberedLine> chunk) {
+        Set<String> ids = collect(chunk, ReviewImportLine::getProductId);
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Product.class).stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Map<String, String> findUsernames(List<NumberedLine> chunk) {
+        Set<String> ids = collect(chunk, ReviewImportLine::getUserId);
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("username");
+
+        Map<String, String> usernames = new HashMap<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            usernames.put(user.getId(), user.getUsername());
+        }
+        return usernames;
+    }
+
+    private static Set<String> collect(List<NumberedLine> chunk, Function<ReviewImportLine, String> field) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (NumberedLine numbered : chunk) {
+            String id = field.apply(numbered.line());
+            if (id != null && !id.isBlank()) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private record NumberedLine(long number, ReviewImportLine line) {
+    }
+}
@@ -1,31 +1,45 @@
 package com.ecommerce.ratingmicroservice.service;
 
+import com.ecommerce.ratingmicroservice.cache.CacheGenerations;
+import com.ecommerce.ratingmicroservice.dto.request.BulkModerationRequest;
 import com.ecommerce.ratingmicroservice.dto.request.ReviewRequest;
+import com.ecommerce.ratingmicroservice.dto.response.BulkModerationResponse;
 import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
 import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
 import com.ecommerce.ratingmicroservice.entity.Product;
 import com.ecommerce.ratingmicroservice.entity.Review;
 import com.ecommerce.ratingmicroservice.entity.User;
 import com.ecommerce.ratingmicroservice.mapper.ReviewMapperUtil;
+import com.ecommerce.ratingmicroservice.pagination.ReviewCursor;
 import com.ecommerce.ratingmicroservice.repository.ProductRepository;
+import com.ecommerce.ratingmicroservice.repository.RatingDelta;
 import com.ecommerce.ratingmicroservice.repository.ReviewRepository;
 import com.ecommerce.ratingmicroservice.repository.UserRepository;
 import com.ecommerce.ratingmicroservice.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,10 +52,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final Sort REVIEW_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final ProductService productService;
+    private final CacheGenerations cacheGenerations;
+    private final CacheManager cacheManager;
 
     // Helper: Get current authenticated user ID
     private String getCurrentUserId() {
@@ -65,12 +83,9 @@ public class ReviewService {
     }
 
     /**
-     * Create review - evicts product-specific and user-specific review caches
+     * Create review - bumps the author's review cache generation
+     * (new reviews are PENDING, so public product pages are unaffected)
      */
-    @Caching(evict = {
-            @CacheEvict(value = "reviewsByProduct", key = "#request.productId + ':*'", allEntries = false),
-            @CacheEvict(value = "reviewsByUser", allEntries = true)
-    })
     @Transactional
     public ReviewResponse createReview(ReviewRequest request) {
         String currentUserId = getCurrentUserId();
@@ -88,6 +103,9 @@ public class ReviewService {
         Review review = new Review();
         review.setProduct(product);
         review.setUser(user);
+        review.setProductId(product.getId());
+        review.setUserId(user.getId());
+        review.setUsername(user.getUsername());
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setStatus(Review.Status.PENDING);
@@ -97,20 +115,17 @@ public class ReviewService {
         review = reviewRepository.save(review);
         log.info("Created review with ID: {} for product: {}", review.getId(), product.getId());
 
-        // Update product's average rating
-        updateProductAverageRating(product.getId());
+        cacheGenerations.bumpUser(currentUserId);
+
+        // New reviews are PENDING, so product rating aggregates are unchanged until approval
 
         return mapToResponse(review);
     }
 
     /**
-     * Update review - evicts specific review, product reviews, and user reviews caches
+     * Update review - evicts specific review, bumps product and user review cache generations
      */
-    @Caching(evict = {
-            @CacheEvict(value = "reviews", key = "#reviewId"),
-            @CacheEvict(value = "reviewsByProduct", allEntries = true),
-            @CacheEvict(value = "reviewsByUser", allEntries = true)
-    })
+    @CacheEvict(value = "reviews", key = "#reviewId")
     @Transactional
     public ReviewResponse updateReview(String reviewId, ReviewRequest request) {
         String currentUserId = getCurrentUserId();
@@ -118,7 +133,7 @@ public class ReviewService {
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
         // Authz: only owner can edit
-        if (!review.getUser().getId().equals(currentUserId)) {
+        if (!currentUserId.equals(review.resolveUserId())) {
             throw new RuntimeException("You can only edit your own reviews.");
         }
 
@@ -130,10 +145,12 @@ public class ReviewService {
         Product product = getProductById(request.getProductId());
 
         // Ensure same product (optional safety)
-        if (!review.getProduct().getId().equals(product.getId())) {
+        if (!product.getId().equals(review.resolveProductId())) {
             throw new RuntimeException("Review product mismatch.");
         }
 
+        Integer previousRating = review.getRating();
+
         // Update fields
         review.setRating(request.getRating());
         review.setComment(request.getComment());
@@ -142,20 +159,21 @@ public class ReviewService {
         review = reviewRepository.save(review);
         log.info("Updated review with ID: {}", reviewId);
 
-        // Update avg rating
-        updateProductAverageRating(product.getId());
+        bumpReviewGenerations(review);
+
+        // Only an APPROVED review's rating change moves the product aggregates
+        if (review.getStatus() == Review.Status.APPROVED && !previousRating.equals(review.getRating())) {
+            productService.applyRatingDelta(product.getId(),
+                    RatingDelta.changed(previousRating, review.getRating()));
+        }
 
         return mapToResponse(review);
     }
 
     /**
-     * Delete review - evicts specific review, product reviews, and user reviews caches
+     * Delete review - evicts specific review, bumps product and user review cache generations
      */
-    @Caching(evict = {
-            @CacheEvict(value = "reviews", key = "#reviewId"),
-            @CacheEvict(value = "reviewsByProduct", allEntries = true),
-            @CacheEvict(value = "reviewsByUser", allEntries = true)
-    })
+    @CacheEvict(value = "reviews", key = "#reviewId")
     @Transactional
     public void deleteReview(String reviewId) {
         String currentUserId = getCurrentUserId();
@@ -163,25 +181,29 @@ public class ReviewService {
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
         // Authz: only owner (or admin) can delete
-        if (!review.getUser().getId().equals(currentUserId)) {
+        if (!currentUserId.equals(review.resolveUserId())) {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (!(auth.getPrincipal() instanceof UserPrincipal up) || !up.hasRole("ADMIN")) {
                 throw new RuntimeException("You can only delete your own reviews.");
             }
         }
 
-        String productId = review.getProduct().getId();
+        String productId = review.resolveProductId();
         reviewRepository.delete(review);
         log.info("Deleted review with ID: {}", reviewId);
 
-        updateProductAverageRating(productId);
+        bumpReviewGenerations(review);
+
+        if (review.getStatus() == Review.Status.APPROVED) {
+            productService.applyRatingDelta(productId, RatingDelta.removed(review.getRating()));
+        }
     }
 
     /**
      * Get single review by ID - cached with simple key
      * Cache key: reviews::<reviewId>
      */
-    @Cacheable(value = "reviews", key = "#reviewId", unless = "#result == null")
+    @Cacheable(value = "reviews", key = "#reviewId", sync = true)
     public ReviewResponse getReviewById(String reviewId) {
         log.debug("Fetching review from DB: {}", reviewId);
 
@@ -193,49 +215,82 @@ public class ReviewService {
 
     /**
      * Get reviews by product with pagination - cached with deterministic key
-     * Cache key: reviewsByProduct::<productId>:<page>:<size>:<sort>
+     * Cache key: reviewsByProduct::<productId>:v<generation>:<page>:<size>
      * Only shows APPROVED reviews to public
+     *
+     * Paging runs in Mongo (skip/limit) in the fixed order createdAt desc, id desc;
+     * the response carries a nextCursor for switching to keyset paging.
+     * A requested sort is ignored, so it is not part of the key either.
      */
     @Cacheable(
             value = "reviewsByProduct",
-            key = "#productId + ':' + #pageable.pageNumber + ':' + " +
-                    "#pageable.pageSize + ':' + #pageable.sort.toString()",
-            unless = "#result == null || #result.empty"
+            key = "#productId + ':v' + @cacheGenerations.forProduct(#productId) + ':' + " +
+                    "#pageable.pageNumber + ':' + #pageable.pageSize",
+            sync = true
     )
     public PageResponse<ReviewResponse> getReviewsByProduct(String productId, Pageable pageable) {
         log.debug("Fetching reviews from DB for product: {}, page={}, size={}",
                 productId, pageable.getPageNumber(), pageable.getPageSize());
 
+        Pageable newestFirst = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), REVIEW_ORDER);
+
         // Only show APPROVED reviews to public
-        List<Review> reviews = reviewRepository.findByProduct_IdAndStatusOrderByCreatedAtDesc(
-                productId, Review.Status.APPROVED
+        Page<ReviewResponse> page = reviewRepository
+                .findByProduct_IdAndStatus(productId, Review.Status.APPROVED, newestFirst)
+                .map(this::mapToResponse);
+
+        // Convert to cacheable PageResponse
+        PageResponse<ReviewResponse> response = PageResponse.from(page);
+        if (page.hasNext()) {
+            response.setNextCursor(cursorOf(page.getContent().get(page.getNumberOfElements() - 1)));
+        }
+        return response;
+    }
+
+    /**
+     * Get reviews by product after a keyset cursor - constant cost regardless of depth
+     * Cache key: reviewsByProduct::<productId>:v<generation>:after:<cursor>:<size>
+     * Only shows APPROVED reviews to public
+     */
+    @Cacheable(
+            value = "reviewsByProduct",
+            key = "#productId + ':v' + @cacheGenerations.forProduct(#productId) + " +
+                    "':after:' + #after + ':' + #size",
+            sync = true
+    )
+    public PageResponse<ReviewResponse> getReviewsByProductAfter(String productId, String after, int size) {
+        log.debug("Fetching reviews from DB for product: {}, after={}, size={}", productId, after, size);
+
+        ReviewCursor cursor = ReviewCursor.decode(after);
+
+        // Fetch one extra row to know whether another page exists
+        List<Review> reviews = reviewRepository.findByProductAfter(
+                productId, Review.Status.APPROVED, cursor, size + 1
         );
 
-        // Paginate manually
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), reviews.size());
-        List<ReviewResponse> pageContent = reviews.subList(start, end).stream()
+        boolean hasNext = reviews.size() > size;
+        List<ReviewResponse> content = reviews.stream()
+                .limit(size)
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
 
-        Page<ReviewResponse> page = new PageImpl<>(pageContent, pageable, reviews.size());
-
-        // Convert to cacheable PageResponse
-        return PageResponse.from(page);
+        String nextCursor = hasNext ? cursorOf(content.get(content.size() - 1)) : null;
+        return PageResponse.ofCursor(content, size, false, nextCursor);
     }
 
     /**
      * Get reviews by user - cached with deterministic key
-     * Cache key: reviewsByUser::<userId>:<currentUserId>
+     * Cache key: reviewsByUser::<userId>:v<generation>:<currentUserId>
      *
      * Users can see all their own reviews (any status)
      * Others can only see APPROVED reviews
      */
     @Cacheable(
             value = "reviewsByUser",
-            key = "#userId + ':' + T(org.springframework.security.core.context.SecurityContextHolder)" +
+            key = "#userId + ':v' + @cacheGenerations.forUser(#userId) + ':' + " +
+                    "T(org.springframework.security.core.context.SecurityContextHolder)" +
                     ".getContext().getAuthentication().getPrincipal().getId()",
-            unless = "#result == null || #result.isEmpty()"
+            sync = true
     )
     public List<ReviewResponse> getReviewsByUser(String userId) {
         log.debug("Fetching reviews from DB for user: {}", userId);
@@ -257,46 +312,22 @@ public class ReviewService {
     }
 
     /**
-     * Update product average rating - evicts product cache to ensure fresh data
-     * This method is called internally after review operations
+     * Rebuild product rating aggregates from scratch with a server-side $group.
+     * Not used on the normal write path (which applies O(1) deltas); kept for
+     * repairing drifted aggregates and for bulk operations.
      */
-    @CacheEvict(value = "products", key = "#productId")
     @Transactional
-    public void updateProductAverageRating(String productId) {
-        Product product = getProductById(productId);
-
-        // Get all APPROVED reviews for this product
-        List<Review> approvedReviews = reviewRepository.findByProduct_IdAndStatus(
-                productId, Review.Status.APPROVED
-        );
-
-        if (approvedReviews.isEmpty()) {
-            product.setAverageRating(null);
-            product.setTotalReviews(0);
-        } else {
-            double sum = approvedReviews.stream()
-                    .mapToInt(Review::getRating)
-                    .sum();
-            double avg = sum / approvedReviews.size();
-
-            product.setAverageRating(avg);
-            product.setTotalReviews(approvedReviews.size());
-        }
-
-        productRepository.save(product);
-        log.info("Updated rating for product {}: avg={}, total={}",
-                productId, product.getAverageRating(), product.getTotalReviews());
+    public void rebuildProductRating(String productId) {
+        RatingDelta totals = reviewRepository.computeApprovedRatingTotals(productId);
+        productService.replaceRatingAggregates(productId, totals);
     }
 
     /**
-     * Moderate review - evicts multiple caches as it affects visibility
+     * Moderate review - evicts specific review, bumps product and user review cache generations
+     * as it affects visibility
      * Only MODERATOR/ADMIN can access this (enforced by SecurityConfig)
      */
-    @Caching(evict = {
-            @CacheEvict(value = "reviews", key = "#reviewId"),
-            @CacheEvict(value = "reviewsByProduct", allEntries = true),
-            @CacheEvict(value = "reviewsByUser", allEntries = true)
-    })
+    @CacheEvict(value = "reviews", key = "#reviewId")
     @Transactional
     public ReviewResponse moderateReview(String reviewId, Review.Status newStatus) {
         Review review = reviewRepository.findById(reviewId)
@@ -306,7 +337,7 @@ public class ReviewService {
             return mapToResponse(review); // no-op if same status
         }
 
-        String productId = review.getProduct().getId();
+        String productId = review.resolveProductId();
 
         // Only allow transition to APPROVED or REJECTED from PENDING
         if (review.getStatus() != Review.Status.PENDING) {
@@ -323,12 +354,115 @@ public class ReviewService {
         review = reviewRepository.save(review);
         log.info("Moderated review {} to status: {}", reviewId, newStatus);
 
-        // Recalculate avg rating
-        updateProductAverageRating(productId);
+        bumpReviewGenerations(review);
+
+        // PENDING -> APPROVED adds this rating; PENDING -> REJECTED leaves aggregates unchanged
+        if (newStatus == Review.Status.APPROVED) {
+            productService.applyRatingDelta(productId, RatingDelta.added(review.getRating()));
+        }
 
         return mapToResponse(review);
     }
 
+    /**
+     * Moderate many reviews at once - one $in read, one unordered bulk write,
+     * one rating delta and one generation bump per affected product.
+     * Reviews that are missing or not PENDING are reported per id and skipped;
+     * the rest are applied.
+     * Only MODERATOR/ADMIN can access this (enforced by controller)
+     */
+    @Transactional
+    public BulkModerationResponse moderateReviews(List<BulkModerationRequest.Item> items) {
+        BulkModerationResponse response = new BulkModerationResponse();
+
+        // Collapse duplicates; the same id with two different targets is ambiguous
+        Map<String, Review.Status> requested = new LinkedHashMap<>();
+        for (BulkModerationRequest.Item item : items) {
+            Review.Status status = item.getStatus();
+            if (status != Review.Status.APPROVED && status != Review.Status.REJECTED) {
+                response.getErrors().put(item.getReviewId(), "Invalid moderation status: " + status);
+                continue;
+            }
+            Review.Status previous = requested.putIfAbsent(item.getReviewId(), status);
+            if (previous != null && previous != status) {
+                response.getErrors().put(item.getReviewId(), "Conflicting statuses requested");
+            }
+        }
+        response.getErrors().keySet().forEach(requested::remove);
+
+        Map<String, Review> reviews = reviewRepository.findModerationStateByIds(requested.keySet()).stream()
+                .collect(Collectors.toMap(Review::getId, Function.identity()));
+
+        Map<String, Review.Status> transitions = new LinkedHashMap<>();
+        Map<String, RatingDelta> deltas = new LinkedHashMap<>();
+        Set<String> products = new HashSet<>();
+        Set<String> users = new HashSet<>();
+
+        requested.forEach((reviewId, status) -> {
+            Review review = reviews.get(reviewId);
+            if (review == null) {
+                response.getErrors().put(reviewId, "Review not found");
+            } else if (review.getStatus() == status) {
+                response.setUnchanged(response.getUnchanged() + 1);
+            } else if (review.getStatus() != Review.Status.PENDING) {
+                response.getErrors().put(reviewId, "Only PENDING reviews can be moderated.");
+            } else {
+                transitions.put(reviewId, status);
+                users.add(review.resolveUserId());
+                // PENDING -> REJECTED leaves product aggregates and public pages unchanged
+                if (status == Review.Status.APPROVED) {
+                    products.add(review.resolveProductId());
+                    deltas.computeIfAbsent(review.resolveProductId(), id -> RatingDelta.empty())
+                            .add(review.getRating());
+                    response.setApproved(response.getApproved() + 1);
+                } else {
+                    response.setRejected(response.getRejected() + 1);
+                }
+            }
+        });
+
+        int matched = reviewRepository.bulkUpdateStatus(transitions, Review.Status.PENDING, LocalDateTime.now());
+        if (matched != transitions.size()) {
+            // Another moderator got there first; roll back so aggregates stay exact
+            throw new RuntimeException("Reviews were moderated concurrently, please retry.");
+        }
+        log.info("Bulk moderated {} reviews across {} products", transitions.size(), products.size());
+
+        deltas.forEach(productService::applyRatingDelta);
+        products.forEach(cacheGenerations::bumpProduct);
+        users.forEach(cacheGenerations::bumpUser);
+        evictReviewsAfterCommit(transitions.keySet());
+
+        return response;
+    }
+
+    // O(1) invalidation of every cached page of the affected product and author
+    private void bumpReviewGenerations(Review review) {
+        cacheGenerations.bumpProduct(review.resolveProductId());
+        cacheGenerations.bumpUser(review.resolveUserId());
+    }
+
+    private void evictReviewsAfterCommit(Set<String> reviewIds) {
+        Cache reviews = cacheManager.getCache("reviews");
+        if (reviews == null || reviewIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reviewIds.forEach(reviews::evict);
+                }
+            });
+        } else {
+            reviewIds.forEach(reviews::evict);
+        }
+    }
+
+    private String cursorOf(ReviewResponse review) {
+        return new ReviewCursor(review.getCreatedAt(), review.getId()).encode();
+    }
+
     // --- MAPPER ---
     private ReviewResponse mapToResponse(Review review) {
         return ReviewMapperUtil.toResponse(review);
@@ -1,7 +1,9 @@
 package com.ecommerce.ratingmicroservice.service;
 
 import com.ecommerce.ratingmicroservice.dto.request.RegisterRequest;
+import com.ecommerce.ratingmicroservice.entity.EmailOutbox;
 import com.ecommerce.ratingmicroservice.entity.User;
+import com.ecommerce.ratingmicroservice.repository.EmailOutboxRepository;
 import com.ecommerce.ratingmicroservice.repository.UserRepository;
 import com.ecommerce.ratingmicroservice.security.EmailVerificationTokenUtil;
 import lombok.RequiredArgsConstructor;
@@ -18,9 +20,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final EmailOutboxRepository emailOutboxRepository;
     private final EmailVerificationTokenUtil tokenUtil;
 
+    /**
+     * Saves the user and queues the verification email in the same transaction;
+     * delivery happens in EmailOutboxDispatcher, off the request thread.
+     */
+    @Transactional
     public void register(RegisterRequest request) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("Email already exists");
@@ -43,13 +50,7 @@ public class UserService {
                 .build();
         User savedUser = userRepository.save(user);
 
-        try {
-            String token = tokenUtil.generateToken(savedUser.getEmail());
-            emailService.sendVerificationEmail(savedUser.getEmail(), token);
-        } catch (Exception e) {
-            userRepository.delete(savedUser);
-            throw new RuntimeException("Failed to send verification email", e);
-        }
+        queueVerificationEmail(savedUser.getEmail());
     }
 
     @Transactional
@@ -79,11 +80,19 @@ public class UserService {
             throw new RuntimeException("Email already verified");
         }
 
-        String token = tokenUtil.generateToken(email);
-        try {
-            emailService.sendVerificationEmail(email, token);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to resend verification email", e);
-        }
+        queueVerificationEmail(email);
+    }
+
+    private void queueVerificationEmail(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .type(EmailOutbox.Type.VERIFICATION)
+                .recipient(email)
+                .token(tokenUtil.generateToken(email))
+                .status(EmailOutbox.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,264 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches every Mongo command sent by the sync and reactive drivers:
+ * - adds its round trip and, with app.mongo.measure-bytes, its size (command + reply bytes) to the current
+ *   request (mongo phase, query budget)
+ * - logs commands slower than app.mongo.slow-command with their shape
+ * - aggregates count, time and bytes per query shape for the queryshapes actuator endpoint
+ *
+ * A shape is the command with its literal values replaced by '?', e.g.
+ * find reviews {product.$id: ?, status: ?} sort {"created_at": -1}
+ * so the same query for different products lands in the same bucket.
+ * Command documents are only valid during the callback; shape and size are taken there.
+ */
+@Slf4j
+@Component
+public class MongoCommandMonitor implements CommandListener {
+
+    private static final int MAX_SHAPES = 1000;
+    private static final String OTHER_SHAPES = "(other shapes)";
+
+    @Value("${app.mongo.slow-command:100ms}")
+    private Duration slowCommand;
+
+    // Off by default: the driver hands out commands and replies as documents, not their wire buffers, so sizing
+    // re-encodes both - a full copy of every reply. Turn on to investigate payload sizes (and for max-bytes)
+    @Value("${app.mongo.measure-bytes:false}")
+    private boolean measureBytes;
+
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    private record Started(String shape, long bytes) {
+    }
+
+    public record ShapeSummary(String shape, long count, double totalMs, double avgMs, double maxMs, long bytes) {
+    }
+
+    private static final class ShapeStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long commandNanos, long commandBytes) {
+            count.increment();
+            nanos.add(commandNanos);
+            bytes.add(commandBytes);
+            maxNanos.accumulateAndGet(commandNanos, Math::max);
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        inFlight.put(event.getRequestId(), new Started(
+                shapeOf(event.getCommandName(), command),
+                measureBytes ? sizeOf(command) : 0));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        long replyBytes = measureBytes && event.getResponse() != null ? sizeOf(event.getResponse()) : 0;
+        finish(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS),
+                replyBytes, null);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finish(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS),
+                0, event.getThrowable());
+    }
+
+    private void finish(int requestId, String commandName, long nanos, long replyBytes, Throwable failure) {
+        Started started = inFlight.remove(requestId);
+        String shape = started != null ? started.shape() : commandName;
+        long bytes = (started != null ? started.bytes() : 0) + replyBytes;
+
+        RequestTimings.recordMongo(nanos, bytes);
+        statsFor(shape).add(nanos, bytes);
+
+        if (nanos >= slowCommand.toNanos()) {
+            log.warn("Slow Mongo command: {} ms, {} bytes, {}{}", RequestTimings.millis(nanos), bytes, shape,
+                    failure != null ? " (failed: " + failure.getMessage() + ")" : "");
+        }
+    }
+
+    private ShapeStats statsFor(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        // Bounded: shapes built from dynamic field names must not grow the map forever
+        String key = shapes.size() < MAX_SHAPES ? shape : OTHER_SHAPES;
+        return shapes.computeIfAbsent(key, k -> new ShapeStats());
+    }
+
+    /**
+     * Shapes ordered by total time spent, most expensive first
+     */
+    public List<ShapeSummary> topShapes(int limit) {
+        return shapes.entrySet().stream()
+                .map(entry -> {
+                    ShapeStats stats = entry.getValue();
+                    long count = stats.count.sum();
+                    long nanos = stats.nanos.sum();
+                    return new ShapeSummary(entry.getKey(), count,
+                            nanos / 1_000_000.0,
+                            count == 0 ? 0 : nanos / 1_000_000.0 / count,
+                            stats.maxNanos.get() / 1_000_000.0,
+                            stats.bytes.sum());
+                })
+                .sorted(Comparator.comparingDouble(ShapeSummary::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    // --- shapes ---
+
+    static String shapeOf(String commandName, BsonDocument command) {
+        StringBuilder shape = new StringBuilder(commandName);
+        BsonValue collection = command.get(commandName);
+        if (collection != null && collection.isString()) {
+            shape.append(' ').append(collection.asString().getValue());
+        }
+
+        switch (commandName) {
+            case "find" -> {
+                appendShape(shape, "", command.get("filter"));
+                appendLiteral(shape, "sort", command.get("sort"));
+            }
+            case "count", "findAndModify" -> appendShape(shape, "", command.get("query"));
+            case "distinct" -> {
+                appendLiteral(shape, "key", command.get("key"));
+                appendShape(shape, "", command.get("query"));
+            }
+            case "aggregate" -> appendPipeline(shape, command.get("pipeline"));
+            case "update" -> appendFirstStatement(shape, command.get("updates"));
+            case "delete" -> appendFirstStatement(shape, command.get("deletes"));
+            default -> {
+                // insert, getMore, ... - command and collection are enough
+            }
+        }
+        return shape.toString();
+    }
+
+    private static void appendShape(StringBuilder shape, String label, BsonValue value) {
+        if (value != null) {
+            shape.append(label.isEmpty() ? " " : " " + label + " ").append(shapeOf(value));
+        }
+    }
+
+    private static void appendLiteral(StringBuilder shape, String label, BsonValue value) {
+        if (value != null) {
+            shape.append(' ').append(label).append(' ')
+                    .append(value.isDocument() ? value.asDocument().toJson()
+                            : value.isString() ? value.asString().getValue() : "?");
+        }
+    }
+
+    // Stage names, with the shape of $match and $sort stages
+    private static void appendPipeline(StringBuilder shape, BsonValue pipeline) {
+        if (pipeline == null || !pipeline.isArray()) {
+            return;
+        }
+        shape.append(" [");
+        BsonArray stages = pipeline.asArray();
+        for (int i = 0; i < stages.size(); i++) {
+            if (i > 0) {
+                shape.append(", ");
+            }
+            if (!stages.get(i).isDocument() || stages.get(i).asDocument().isEmpty()) {
+                shape.append('?');
+                continue;
+            }
+            BsonDocument stage = stages.get(i).asDocument();
+            String operator = stage.getFirstKey();
+            shape.append(operator);
+            if ("$match".equals(operator)) {
+                shape.append(' ').append(shapeOf(stage.get(operator)));
+            } else if ("$sort".equals(operator)) {
+                shape.append(' ').append(stage.get(operator).asDocument().toJson());
+            }
+        }
+        shape.append(']');
+    }
+
+    // Bulk writes: the shape of the first statement's filter stands for the batch
+    private static void appendFirstStatement(StringBuilder shape, BsonValue statements) {
+        if (statements != null && statements.isArray() && !statements.asArray().isEmpty()
+                && statements.asArray().get(0).isDocument()) {
+            appendShape(shape, "", statements.asArray().get(0).asDocument().get("q"));
+            if (statements.asArray().size() > 1) {
+                shape.append(" (bulk)");
+            }
+        }
+    }
+
+    private static String shapeOf(BsonValue value) {
+        if (value.isDocument()) {
+            StringBuilder shape = new StringBuilder("{");
+            value.asDocument().forEach((key, nested) -> {
+                if (shape.length() > 1) {
+                    shape.append(", ");
+                }
+                shape.append(key).append(": ").append(shapeOf(nested));
+            });
+            return shape.append('}').toString();
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // $and / $or / $nor: keep the shape of each branch; value lists ($in) collapse
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                StringBuilder shape = new StringBuilder("[");
+                for (BsonValue element : array) {
+                    if (shape.length() > 1) {
+                        shape.append(", ");
+                    }
+                    shape.append(shapeOf(element));
+                }
+                return shape.append(']').toString();
+            }
+            return "[?]";
+        }
+        return "?";
+    }
+
+    private static long sizeOf(BsonDocument document) {
+        if (document instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        try {
+            return new RawBsonDocument(document, new BsonDocumentCodec()).getByteBuffer().remaining();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request Mongo budget. Catches N+1 patterns (a DBRef or lookup per list element) that only show
+ * under real data:
+ * - mode WARN (default): log the endpoint and its counts
+ * - mode FAIL: answer 500 instead of the response - meant for test runs (MONGO_QUERY_BUDGET=FAIL)
+ * - mode OFF
+ *
+ * Checked once per request, before anything can commit the response: by RenderTimingAdvice when the
+ * controller's return value is about to be serialized, otherwise by ServerTimingFilter when the request
+ * completes. A response that is already committed by then (a body streamed straight to the response and
+ * larger than its buffer) can no longer be failed, so FAIL only logs it as an error. Async requests
+ * (Mono and streaming endpoints) are not checked.
+ *
+ * Budgets are per endpoint ("METHOD /path/pattern" under endpoints), else max-commands / max-bytes.
+ * Bytes are only counted with app.mongo.measure-bytes; without it max-bytes never triggers.
+ */
+@Slf4j
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mongo.query-budget")
+public class QueryBudget {
+
+    public enum Mode { OFF, WARN, FAIL }
+
+    private Mode mode = Mode.WARN;
+
+    private int maxCommands = 20;
+
+    private DataSize maxBytes = DataSize.ofMegabytes(4);
+
+    // Max commands per endpoint, e.g. "[GET /api/products/{id}]": 2
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    // The controller returned and its body is about to be written: nothing is committed yet
+    void checkBeforeRender(String endpoint, RequestTimings timings) {
+        String violation = violation(endpoint, timings);
+        if (violation == null) {
+            return;
+        }
+        if (mode == Mode.FAIL) {
+            // Resolved by ResponseStatusExceptionResolver like any other handler exception
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, violation);
+        }
+        log.warn(violation);
+    }
+
+    // The request completed without a rendered body (or before RenderTimingAdvice ran)
+    void checkCompleted(String endpoint, RequestTimings timings, HttpServletResponse response) throws IOException {
+        String violation = violation(endpoint, timings);
+        if (violation == null) {
+            return;
+        }
+        if (mode != Mode.FAIL) {
+            log.warn(violation);
+        } else if (response.isCommitted()) {
+            log.error("{} - response already committed, not failed", violation);
+        } else {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, violation);
+        }
+    }
+
+    // Message for a request over budget, or null; only the first check of a request counts
+    private String violation(String endpoint, RequestTimings timings) {
+        if (mode == Mode.OFF || !timings.markBudgetChecked()) {
+            return null;
+        }
+
+        int commandBudget = endpoints.getOrDefault(endpoint, maxCommands);
+        long commands = timings.mongoCommands();
+        long bytes = timings.mongoBytes();
+        if (commands <= commandBudget && bytes <= maxBytes.toBytes()) {
+            return null;
+        }
+
+        return "Query budget exceeded by " + endpoint + ": " + commands + " Mongo commands (budget "
+                + commandBudget + "), " + bytes + " bytes (budget " + maxBytes.toBytes() + ")";
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/queryshapes?limit=20 - Mongo query shapes on this node by total time spent
+ * DELETE /actuator/queryshapes - start a new measurement window
+ */
+@Component
+@Endpoint(id = "queryshapes")
+@RequiredArgsConstructor
+public class QueryShapesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final MongoCommandMonitor monitor;
+
+    @ReadOperation
+    public List<MongoCommandMonitor.ShapeSummary> topShapes(@Nullable Integer limit) {
+        return monitor.topShapes(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        monitor.reset();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the start of the render phase: the controller has returned and its body is handed to the
+ * message converter (JSON serialization and writing). Also the last point where the query budget
+ * can still fail the request, so it is checked here rather than after the body is written.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class RenderTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryBudget queryBudget;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null && request instanceof ServletServerHttpRequest servletRequest) {
+            queryBudget.checkBeforeRender(ServerTimingFilter.endpoint(servletRequest.getServletRequest()), timings);
+        }
+        RequestTimings.markRenderStart();
+        return body;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request phase timings, collected on the request thread and reported by ServerTimingFilter
+ * as a Server-Timing header and a sampled log line.
+ *
+ * Phases: jwt, user (UserDetailsService lookup), redis (shared cache tier), miss (cache loaders),
+ * mongo (driver commands), dbref (DBRef resolution), render (response body writing).
+ * Phases nest - a miss contains mongo, dbref lookups are also mongo commands - so they can add up
+ * to more than total. Outside a request (schedulers, warm-up, async threads) recording is a no-op.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = new Scope(null, null);
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> phases = new LinkedHashMap<>(); // phase -> {nanos, count}
+    private long renderStartNanos;
+    private long mongoBytes;
+    private boolean budgetChecked;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void record(String phase, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(phase, nanos);
+        }
+    }
+
+    // One Mongo command: its round trip and command + reply size
+    public static void recordMongo(long nanos, long bytes) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            synchronized (timings) {
+                timings.add("mongo", nanos);
+                timings.mongoBytes += bytes;
+            }
+        }
+    }
+
+    /**
+     * Times a block: try (RequestTimings.Scope ignored = RequestTimings.time("user")) { ... }
+     */
+    public static Scope time(String phase) {
+        RequestTimings timings = CURRENT.get();
+        return timings == null ? NOOP : new Scope(timings, phase);
+    }
+
+    // The controller returned and the body is about to be serialized
+    static void markRenderStart() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            synchronized (timings) {
+                timings.renderStartNanos = System.nanoTime();
+            }
+        }
+    }
+
+    synchronized void add(String phase, long nanos) {
+        long[] totals = phases.computeIfAbsent(phase, p -> new long[2]);
+        totals[0] += nanos;
+        totals[1]++;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    synchronized long mongoCommands() {
+        long[] mongo = phases.get("mongo");
+        return mongo != null ? mongo[1] : 0;
+    }
+
+    synchronized long mongoBytes() {
+        return mongoBytes;
+    }
+
+    // True only the first time, so the budget is checked once per request
+    synchronized boolean markBudgetChecked() {
+        if (budgetChecked) {
+            return false;
+        }
+        budgetChecked = true;
+        return true;
+    }
+
+    /**
+     * Header value, e.g. jwt;dur=0.4, mongo;desc="x3";dur=12.1, render;dur=2.0, total;dur=16.3
+     */
+    synchronized String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        long now = System.nanoTime();
+        phases.forEach((phase, totals) -> {
+            header.append(phase);
+            if (totals[1] > 1) {
+                header.append(";desc=\"x").append(totals[1]).append('"');
+            }
+            header.append(";dur=").append(millis(totals[0])).append(", ");
+        });
+        if (renderStartNanos != 0) {
+            header.append("render;dur=").append(millis(now - renderStartNanos)).append(", ");
+        }
+        return header.append("total;dur=").append(millis(now - startNanos)).toString();
+    }
+
+    /**
+     * Log fields, e.g. jwt_ms=0.4 mongo_ms=12.1 mongo_n=3 mongo_bytes=5120 render_ms=2.0
+     */
+    synchronized String toLogFields() {
+        StringBuilder fields = new StringBuilder();
+        phases.forEach((phase, totals) -> {
+            fields.append(phase).append("_ms=").append(millis(totals[0])).append(' ');
+            if (totals[1] > 1) {
+                fields.append(phase).append("_n=").append(totals[1]).append(' ');
+            }
+        });
+        if (mongoBytes > 0) {
+            fields.append("mongo_bytes=").append(mongoBytes).append(' ');
+        }
+        if (renderStartNanos != 0) {
+            fields.append("render_ms=").append(millis(System.nanoTime() - renderStartNanos)).append(' ');
+        }
+        return fields.toString().trim();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final RequestTimings timings;
+        private final String phase;
+        private final long startNanos;
+
+        private Scope(RequestTimings timings, String phase) {
+            this.timings = timings;
+            this.phase = phase;
+            this.startNanos = timings == null ? 0 : System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (timings != null) {
+                timings.add(phase, System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
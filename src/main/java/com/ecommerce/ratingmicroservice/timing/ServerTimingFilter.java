@@ -0,0 +1,212 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outermost filter: opens the request's RequestTimings and reports them
+ * - as a Server-Timing response header (app.timing.header), added just before the response commits,
+ *   so it covers everything up to the first flushed bytes of the body
+ * - as one structured log line on the "request-timing" logger, for a random sample of requests
+ *   (app.timing.log-sample-rate) and for every request slower than app.timing.log-slower-than
+ * - against the endpoint's Mongo query budget (QueryBudget), unless RenderTimingAdvice already checked it
+ * Async requests (Mono and streaming endpoints) only report what ran on the request thread.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger TIMING_LOG = LoggerFactory.getLogger("request-timing");
+
+    private final QueryBudget queryBudget;
+
+    @Value("${app.timing.header:true}")
+    private boolean header;
+
+    @Value("${app.timing.log-sample-rate:0.01}")
+    private double logSampleRate;
+
+    @Value("${app.timing.log-slower-than:1s}")
+    private Duration logSlowerThan;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestTimings timings = RequestTimings.begin();
+        ServerTimingResponse timedResponse = header ? new ServerTimingResponse(response, timings) : null;
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, timedResponse != null ? timedResponse : response);
+            completed = true;
+        } finally {
+            RequestTimings.end();
+            if (completed && !request.isAsyncStarted()) {
+                queryBudget.checkCompleted(endpoint(request), timings, response);
+            }
+            if (timedResponse != null) {
+                timedResponse.writeHeader();
+            }
+            if (!request.isAsyncStarted()) {
+                logSampled(request, response, timings);
+            }
+        }
+    }
+
+    // "GET /api/products/{id}" - the mapped pattern keeps ids out of logs and budget keys
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private void logSampled(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        long total = timings.elapsedNanos();
+        boolean slow = total >= logSlowerThan.toNanos();
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= logSampleRate) {
+            return;
+        }
+
+        TIMING_LOG.info("endpoint=\"{}\" status={} slow={} total_ms={} {}",
+                endpoint(request),
+                response.getStatus(),
+                slow,
+                RequestTimings.millis(total),
+                timings.toLogFields());
+    }
+
+    /**
+     * Adds the Server-Timing header once, right before anything can commit the response:
+     * on flush, when the body outgrows the response buffer, or at the end of the request.
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean headerWritten;
+        private ServletOutputStream outputStream;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                headerWritten = true;
+                setHeader("Server-Timing", timings.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderWritingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+
+        private final class HeaderWritingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+            private long written;
+
+            HeaderWritingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                beforeWrite(1);
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                beforeWrite(len);
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+
+            private void beforeWrite(int len) {
+                written += len;
+                if (written >= getBufferSize()) {
+                    writeHeader();
+                }
+            }
+        }
+    }
+}
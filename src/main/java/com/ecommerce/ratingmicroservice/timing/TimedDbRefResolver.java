@@ -0,0 +1,33 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+
+import java.util.List;
+
+/**
+ * DefaultDbRefResolver that records eager DBRef lookups (Review.product, Review.user)
+ * as the dbref phase of the current request.
+ */
+public class TimedDbRefResolver extends DefaultDbRefResolver {
+
+    public TimedDbRefResolver(MongoDatabaseFactory mongoDbFactory) {
+        super(mongoDbFactory);
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        try (RequestTimings.Scope ignored = RequestTimings.time("dbref")) {
+            return super.fetch(dbRef);
+        }
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> refs) {
+        try (RequestTimings.Scope ignored = RequestTimings.time("dbref")) {
+            return super.bulkFetch(refs);
+        }
+    }
+}
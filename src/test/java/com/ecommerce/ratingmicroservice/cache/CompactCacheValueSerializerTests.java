@@ -0,0 +1,80 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import com.ecommerce.ratingmicroservice.config.RedisConfig;
+import com.ecommerce.ratingmicroservice.dto.response.PageResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import com.ecommerce.ratingmicroservice.dto.response.ReviewResponse;
+import com.ecommerce.ratingmicroservice.entity.Review;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCacheValueSerializerTests {
+
+    private final RedisSerializer<Object> json = RedisConfig.jsonValueSerializer();
+    private final CompactCacheValueSerializer binary = new CompactCacheValueSerializer(json);
+
+    @Test
+    void roundTripsProduct() {
+        ProductResponse product = new ProductResponse("p1", "Phone", null, "electronics",
+                new BigDecimal("499.99"), "https://img/p1.png", 4.25, 12);
+
+        assertThat(binary.deserialize(binary.serialize(product))).isEqualTo(product);
+    }
+
+    @Test
+    void roundTripsReviewPage() {
+        PageResponse<ReviewResponse> page = reviewPage(50);
+
+        assertThat(binary.deserialize(binary.serialize(page))).isEqualTo(page);
+    }
+
+    @Test
+    void reviewPageIsSmallerThanJson() {
+        PageResponse<ReviewResponse> page = reviewPage(50);
+
+        int jsonSize = json.serialize(page).length;
+        int binarySize = binary.serialize(page).length;
+
+        assertThat(binarySize).isLessThan(jsonSize / 2);
+    }
+
+    @Test
+    void readsEntriesWrittenAsJson() {
+        PageResponse<ReviewResponse> page = reviewPage(3);
+
+        assertThat(binary.deserialize(json.serialize(page))).isEqualTo(page);
+    }
+
+    @Test
+    void unknownSchemaVersionIsAMiss() {
+        byte[] bytes = binary.serialize(reviewPage(1));
+        bytes[1] = (byte) (CompactCacheValueSerializer.VERSION + 1);
+
+        assertThat(binary.deserialize(bytes)).isNull();
+    }
+
+    private static PageResponse<ReviewResponse> reviewPage(int size) {
+        List<ReviewResponse> reviews = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ReviewResponse review = new ReviewResponse();
+            review.setId("65f0c0ffee0000000000" + String.format("%04d", i));
+            review.setProductId("65f0c0ffee00000000000001");
+            review.setUserId("65f0c0ffee0000000000aaaa");
+            review.setUsername("reviewer" + i);
+            review.setRating(1 + i % 5);
+            review.setComment("Solid product, would buy again #" + i);
+            review.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(i));
+            review.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0).plusMinutes(i));
+            review.setStatus(Review.Status.APPROVED);
+            reviews.add(review);
+        }
+        return new PageResponse<>(reviews, 0, size, size, 1, true, true, reviews.isEmpty(), null);
+    }
+}
@@ -0,0 +1,207 @@
+package com.ecommerce.ratingmicroservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+    private static final Supplier<Cache.ValueWrapper> NOTHING_SHARED = () -> null;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+    private final TwoTierCacheProperties properties = new TwoTierCacheProperties();
+
+    SingleFlightTests() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        properties.getSingleFlight().setPollInterval(Duration.ofMillis(1));
+    }
+
+    @Test
+    void concurrentCallersForOneKeyRunTheLoaderOnce() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<FutureTask<Object>> callers = startCallers(() -> singleFlight.load("products::1", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "product";
+        }, NOTHING_SHARED));
+        release.countDown();
+
+        for (FutureTask<Object> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isEqualTo("product");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void differentKeysDoNotWaitOnEachOther() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+
+        CompletableFuture<Object> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return singleFlight.load("products::1", () -> {
+                    slowStarted.countDown();
+                    release.await();
+                    return "slow";
+                }, NOTHING_SHARED);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Object> fast = CompletableFuture.supplyAsync(() -> {
+            try {
+                return singleFlight.load("products::2", () -> "fast", NOTHING_SHARED);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(fast.get(5, TimeUnit.SECONDS)).isEqualTo("fast");
+        assertThat(slow).isNotDone();
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    void loaderFailureReachesEveryWaiterAndIsNotCached() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("mongo down");
+
+        List<FutureTask<Object>> callers = startCallers(() -> singleFlight.load("products::1", () -> {
+            loads.incrementAndGet();
+            release.await();
+            throw failure;
+        }, NOTHING_SHARED));
+        release.countDown();
+
+        for (FutureTask<Object> caller : callers) {
+            ExecutionException thrown = catchExecution(caller);
+            assertThat(thrown.getCause()).isSameAs(failure);
+        }
+        assertThat(loads).hasValue(1);
+
+        assertThat(singleFlight.<Object>load("products::1", () -> "product", NOTHING_SHARED)).isEqualTo("product");
+    }
+
+    @Test
+    void lockWinnerLoadsAndReleasesTheLock() throws Exception {
+        properties.getSingleFlight().setDistributed(true);
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        when(valueOps.setIfAbsent(eq("ecommerce:lock:products::1"), anyString(), any(Duration.class)))
+                .thenReturn(true);
+
+        assertThat(singleFlight.<Object>load("products::1", () -> "product", NOTHING_SHARED)).isEqualTo("product");
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("ecommerce:lock:products::1")), any());
+    }
+
+    @Test
+    void lockLoserPollsTheSharedTierInsteadOfLoading() throws Exception {
+        properties.getSingleFlight().setDistributed(true);
+        properties.getSingleFlight().setWaitTimeout(Duration.ofSeconds(5));
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        AtomicInteger reads = new AtomicInteger();
+
+        Object value = singleFlight.load("products::1", () -> {
+            throw new AssertionError("the lock holder loads this key");
+        }, () -> reads.incrementAndGet() < 3 ? null : new SimpleValueWrapper("from another node"));
+
+        assertThat(value).isEqualTo("from another node");
+        assertThat(reads).hasValue(3);
+    }
+
+    @Test
+    void lockLoserLoadsItselfOnceTheWaitTimesOut() throws Exception {
+        properties.getSingleFlight().setDistributed(true);
+        properties.getSingleFlight().setWaitTimeout(Duration.ofMillis(50));
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        AtomicInteger loads = new AtomicInteger();
+
+        Object value = singleFlight.load("products::1", () -> {
+            loads.incrementAndGet();
+            return "loaded locally";
+        }, NOTHING_SHARED);
+
+        assertThat(value).isEqualTo("loaded locally");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadsLocallyWhenRedisIsUnavailable() throws Exception {
+        properties.getSingleFlight().setDistributed(true);
+        SingleFlight singleFlight = new SingleFlight(redisTemplate, properties);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        assertThat(singleFlight.<Object>load("products::1", () -> "product", NOTHING_SHARED)).isEqualTo("product");
+    }
+
+    /*
+     * Starts CALLERS threads on the same call and returns once all of them are parked: the leader inside
+     * its loader, the others waiting for the leader's result.
+     */
+    private static List<FutureTask<Object>> startCallers(Callable<Object> call) throws InterruptedException {
+        List<FutureTask<Object>> tasks = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            FutureTask<Object> task = new FutureTask<>(call);
+            Thread thread = new Thread(task, "caller-" + i);
+            thread.setDaemon(true);
+            tasks.add(task);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertThat(System.nanoTime()).as("callers parked").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        return tasks;
+    }
+
+    private static ExecutionException catchExecution(FutureTask<Object> caller) throws Exception {
+        try {
+            caller.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e;
+        }
+        throw new AssertionError("expected the load to fail");
+    }
+}
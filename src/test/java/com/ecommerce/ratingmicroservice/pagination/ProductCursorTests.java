@@ -0,0 +1,113 @@
+package com.ecommerce.ratingmicroservice.pagination;
+
+import com.ecommerce.ratingmicroservice.dto.response.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ProductCursorTests {
+
+    private final ProductResponse last = new ProductResponse("65f1c0a2b3d4e5f601234567", "Phone | 128 GB", null,
+            "electronics", new BigDecimal("499.90"), null, 4.25, 12);
+
+    @Test
+    void roundTripsEverySortKeyInBothDirections() {
+        for (ProductSortKey sortKey : ProductSortKey.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                ProductCursor cursor = ProductCursor.after(last, sortKey, direction);
+
+                assertThat(ProductCursor.decode(cursor.encode())).as("%s %s", sortKey, direction).isEqualTo(cursor);
+            }
+        }
+    }
+
+    @Test
+    void keepsTheExactSortValue() {
+        assertThat(ProductCursor.decode(ProductCursor.after(last, ProductSortKey.PRICE, Sort.Direction.ASC).encode())
+                .getValue()).isEqualTo(new BigDecimal("499.90"));
+        assertThat(ProductCursor.decode(ProductCursor.after(last, ProductSortKey.AVERAGE_RATING, Sort.Direction.ASC)
+                .encode()).getValue()).isEqualTo(4.25);
+        assertThat(ProductCursor.decode(ProductCursor.after(last, ProductSortKey.NAME, Sort.Direction.ASC).encode())
+                .getValue()).isEqualTo("Phone | 128 GB");
+    }
+
+    @Test
+    void writesPricesInPlainNotation() {
+        ProductCursor cursor = new ProductCursor(ProductSortKey.PRICE, Sort.Direction.DESC, new BigDecimal("1E+3"),
+                last.getId());
+
+        assertThat(raw(cursor.encode())).endsWith("|v1000");
+        assertThat((BigDecimal) ProductCursor.decode(cursor.encode()).getValue()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void keepsNullApartFromEmptyName() {
+        ProductCursor nullName = new ProductCursor(ProductSortKey.NAME, Sort.Direction.ASC, null, last.getId());
+        ProductCursor emptyName = new ProductCursor(ProductSortKey.NAME, Sort.Direction.ASC, "", last.getId());
+
+        assertThat(nullName.encode()).isNotEqualTo(emptyName.encode());
+        assertThat(ProductCursor.decode(nullName.encode()).getValue()).isNull();
+        assertThat(ProductCursor.decode(emptyName.encode()).getValue()).isEqualTo("");
+    }
+
+    @Test
+    void roundTripsNullRating() {
+        ProductResponse unrated = new ProductResponse("65f1c0a2b3d4e5f601234568", "Case", null, "accessories",
+                BigDecimal.TEN, null, null, 0);
+        ProductCursor cursor = ProductCursor.after(unrated, ProductSortKey.AVERAGE_RATING, Sort.Direction.DESC);
+
+        assertThat(cursor.getValue()).isNull();
+        assertThat(ProductCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void idCursorCarriesNoValue() {
+        ProductCursor cursor = ProductCursor.after(last, ProductSortKey.ID, Sort.Direction.ASC);
+
+        assertThat(cursor.getValue()).isNull();
+        assertThat(ProductCursor.decode(encode("ID|ASC|" + last.getId() + "|vignored")).getValue()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "PRICE|ASC|65f1c0a2b3d4e5f601234567",      // missing value
+            "PRICE|ASC||v10",                          // empty id
+            "PRICE|ASC|65f1c0a2b3d4e5f601234567|10",   // value without prefix
+            "PRICE|ASC|65f1c0a2b3d4e5f601234567|vten", // not a price
+            "RATING|ASC|65f1c0a2b3d4e5f601234567|v4",  // unknown sort key
+            "PRICE|UP|65f1c0a2b3d4e5f601234567|v10",   // unknown direction
+            "AVERAGE_RATING|DESC|65f1c0a2b3d4e5f601234567|v",
+            ""
+    })
+    void rejectsMalformedTokens(String raw) {
+        String token = encode(raw);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ProductCursor.decode(token))
+                .withMessage("Invalid cursor: " + token);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "a", "UFJJQ0V8QVNDfDY1ZjE=="})
+    void rejectsTokensThatAreNotBase64(String token) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ProductCursor.decode(token))
+                .withMessage("Invalid cursor: " + token);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String raw(String token) {
+        return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    }
+}
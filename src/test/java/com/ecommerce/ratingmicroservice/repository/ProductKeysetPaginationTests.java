@@ -0,0 +1,161 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.ecommerce.ratingmicroservice.pagination.ProductCursor;
+import com.ecommerce.ratingmicroservice.pagination.ProductSortKey;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks afterCursor against an in-memory evaluation of its filter that follows Mongo's rules:
+ * null sorts before every value, equality with null also matches a missing field, and $gt/$lt
+ * never match null.
+ */
+class ProductKeysetPaginationTests {
+
+    // id -> price; two null prices, a duplicated price and distinct ones, ids deliberately not in price order
+    private static final Map<String, BigDecimal> PRICES = new LinkedHashMap<>();
+
+    static {
+        PRICES.put("a1", null);
+        PRICES.put("a2", new BigDecimal("10.00"));
+        PRICES.put("a3", new BigDecimal("30.00"));
+        PRICES.put("a4", null);
+        PRICES.put("a5", new BigDecimal("10.00"));
+        PRICES.put("a6", new BigDecimal("20.00"));
+        PRICES.put("a7", new BigDecimal("10.00"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Sort.Direction.class)
+    void pagesVisitEveryProductOnceInSortOrder(Sort.Direction direction) {
+        List<String> expected = sorted(direction, PRICES.keySet());
+
+        for (int pageSize = 1; pageSize <= PRICES.size(); pageSize++) {
+            List<String> visited = new ArrayList<>();
+            ProductCursor cursor = null;
+            while (true) {
+                List<String> page = page(direction, cursor, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                visited.addAll(page);
+                String last = page.get(page.size() - 1);
+                cursor = new ProductCursor(ProductSortKey.PRICE, direction, PRICES.get(last), last);
+            }
+            assertThat(visited).as("%s, page size %d", direction, pageSize).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void ascendingFromNullContinuesTheNullBucketThenAllValues() {
+        assertThat(after(Sort.Direction.ASC, null, "a1")).containsExactly("a4", "a2", "a5", "a7", "a6", "a3");
+    }
+
+    @Test
+    void descendingFromNullOnlyFinishesTheNullBucket() {
+        assertThat(after(Sort.Direction.DESC, null, "a4")).containsExactly("a1");
+    }
+
+    @Test
+    void ascendingFromValueSkipsNulls() {
+        assertThat(after(Sort.Direction.ASC, new BigDecimal("10.00"), "a5")).containsExactly("a7", "a6", "a3");
+    }
+
+    @Test
+    void descendingFromValueEndsWithNulls() {
+        assertThat(after(Sort.Direction.DESC, new BigDecimal("10.00"), "a5")).containsExactly("a2", "a4", "a1");
+    }
+
+    @Test
+    void idSortKeyOnlyComparesIds() {
+        ProductCursor cursor = new ProductCursor(ProductSortKey.ID, Sort.Direction.DESC, null, "a4");
+
+        assertThat(ProductRepositoryCustomImpl.afterCursor(ProductSortKey.ID, Sort.Direction.DESC, cursor)
+                .getCriteriaObject()).isEqualTo(new Document("id", new Document("$lt", "a4")));
+    }
+
+    private static List<String> after(Sort.Direction direction, BigDecimal price, String id) {
+        return page(direction, new ProductCursor(ProductSortKey.PRICE, direction, price, id), PRICES.size());
+    }
+
+    private static List<String> page(Sort.Direction direction, ProductCursor cursor, int limit) {
+        Document filter = cursor == null ? new Document()
+                : ProductRepositoryCustomImpl.afterCursor(ProductSortKey.PRICE, direction, cursor).getCriteriaObject();
+        List<String> matching = PRICES.keySet().stream()
+                .filter(id -> matches(filter, Map.of("id", id), PRICES.get(id)))
+                .toList();
+        return sorted(direction, matching).stream().limit(limit).toList();
+    }
+
+    // (price, id) with null first, reversed as a whole for DESC
+    private static List<String> sorted(Sort.Direction direction, Iterable<String> ids) {
+        Comparator<String> order = Comparator.<String, BigDecimal>comparing(PRICES::get,
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Comparator.naturalOrder());
+        List<String> sorted = new ArrayList<>();
+        ids.forEach(sorted::add);
+        sorted.sort(direction.isAscending() ? order : order.reversed());
+        return sorted;
+    }
+
+    private static boolean matches(Document filter, Map<String, Object> fields, BigDecimal price) {
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            boolean matched = switch (condition.getKey()) {
+                case "$or" -> clauses(condition.getValue()).stream().anyMatch(clause -> matches(clause, fields, price));
+                case "$and" -> clauses(condition.getValue()).stream().allMatch(clause -> matches(clause, fields, price));
+                case "price" -> fieldMatches(price, condition.getValue());
+                default -> fieldMatches(fields.get(condition.getKey()), condition.getValue());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> clauses(Object value) {
+        return (List<Document>) value;
+    }
+
+    private static boolean fieldMatches(Object actual, Object condition) {
+        if (!(condition instanceof Document operators)) {
+            return same(actual, condition);
+        }
+        for (Map.Entry<String, Object> operator : operators.entrySet()) {
+            Object operand = operator.getValue();
+            boolean matched = switch (operator.getKey()) {
+                case "$gt" -> actual != null && compare(actual, operand) > 0;
+                case "$lt" -> actual != null && compare(actual, operand) < 0;
+                case "$ne" -> !same(actual, operand);
+                default -> throw new IllegalArgumentException("Unsupported operator " + operator.getKey());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean same(Object actual, Object expected) {
+        return actual == null || expected == null ? Objects.equals(actual, expected) : compare(actual, expected) == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object actual, Object operand) {
+        return ((Comparable<Object>) actual).compareTo(operand);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.ratingmicroservice.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryQueryShapesTests {
+
+    // Interfaces whose own methods send queries; inherited CRUD methods go by _id
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            ReviewRepository.class, ReviewRepositoryCustom.class, ReactiveReviewRepositoryCustom.class,
+            ProductRepository.class, ProductRepositoryCustom.class, ReactiveProductRepositoryCustom.class);
+
+    // Building the queries needs only the mapping metadata; the client never connects
+    private static MongoClient client;
+    private static Map<String, RepositoryQueryShapes.Shape> shapes;
+
+    @BeforeAll
+    static void buildShapes() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        client = MongoClients.create("mongodb://localhost:1");
+        shapes = RepositoryQueryShapes.all(new MongoTemplate(new SimpleMongoClientDatabaseFactory(client, "shapes"),
+                converter));
+    }
+
+    @AfterAll
+    static void closeClient() {
+        client.close();
+    }
+
+    @Test
+    void everyRepositoryMethodHasAShape() {
+        assertThat(shapes.keySet())
+                .as("RepositoryQueryShapes entries - add one for each new repository method")
+                .containsAll(repositoryMethods());
+    }
+
+    @Test
+    void everyShapeBelongsToARepositoryMethod() {
+        assertThat(repositoryMethods())
+                .as("repository methods - remove shapes of deleted methods")
+                .containsAll(shapes.keySet());
+    }
+
+    @Test
+    void shapesThatMustUseAnIndexHaveAQuery() {
+        shapes.forEach((method, shape) -> {
+            assertThat(shape.type()).as(method).isNotNull();
+            if (shape.expectsIndex()) {
+                assertThat(shape.query()).as(method).isNotNull();
+            }
+        });
+    }
+
+    @Test
+    void derivedFindersKeepTheirDeclaredSort() {
+        assertThat(shapes.get("findByUser_IdOrderByCreatedAtDesc").query().getSortObject())
+                .isEqualTo(new Document("createdAt", -1));
+    }
+
+    private static Set<String> repositoryMethods() {
+        return REPOSITORIES.stream()
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+    }
+}
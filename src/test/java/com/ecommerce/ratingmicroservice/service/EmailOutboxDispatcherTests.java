@@ -0,0 +1,198 @@
+package com.ecommerce.ratingmicroservice.service;
+
+import com.ecommerce.ratingmicroservice.entity.EmailOutbox;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTests {
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void claimOneMessage() {
+        EmailOutbox claimed = EmailOutbox.builder()
+                .id("outbox-1")
+                .type(EmailOutbox.Type.VERIFICATION)
+                .recipient("alice@example.com")
+                .token("token-1")
+                .status(EmailOutbox.Status.SENDING)
+                .attempts(1)
+                .nextAttemptAt(LocalDateTime.now().plusMinutes(5))
+                .build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(EmailOutbox.class)))
+                .thenReturn(claimed, (EmailOutbox) null);
+        leaseHeld(true);
+        exhaustedMessages(0);
+    }
+
+    @Test
+    void deliversClaimedMessageAndMarksItSentUnderItsClaim() throws Exception {
+        dispatchOnce(smtp.getSmtp().getPort());
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("Verify Your Email Address");
+        assertThat(received[0].getRecipients(Message.RecipientType.TO)[0].toString())
+                .isEqualTo("alice@example.com");
+
+        Document filter = outcomeFilter();
+        assertThat(filter).containsEntry("id", "outbox-1")
+                .containsEntry("status", EmailOutbox.Status.SENDING)
+                .containsEntry("attempts", 1);
+        assertThat(outcomeUpdate().get("$set", Document.class)).containsEntry("status", EmailOutbox.Status.SENT);
+        assertThat(counted("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void failedSendIsRescheduledUnderItsClaim() throws Exception {
+        dispatchOnce(closedPort());
+
+        assertThat(outcomeFilter()).containsEntry("status", EmailOutbox.Status.SENDING)
+                .containsEntry("attempts", 1);
+        assertThat(outcomeUpdate().get("$set", Document.class)).containsEntry("status", EmailOutbox.Status.PENDING);
+        assertThat(counted("retry")).isEqualTo(1);
+    }
+
+    @Test
+    void failureAfterLosingTheLeaseLeavesTheMessageToItsNewOwner() throws Exception {
+        leaseHeld(false);
+
+        dispatchOnce(closedPort());
+
+        assertThat(counted("retry")).isZero();
+        assertThat(counted("failed")).isZero();
+    }
+
+    @Test
+    void deliveryAfterLosingTheLeaseIsStillCountedAsSent() throws Exception {
+        leaseHeld(false);
+
+        dispatchOnce(smtp.getSmtp().getPort());
+
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+        assertThat(counted("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void claimsOnlyMessagesWithAttemptsLeft() throws Exception {
+        dispatchOnce(smtp.getSmtp().getPort());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce()).findAndModify(query.capture(), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(EmailOutbox.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("attempts", new Document("$lt", 8));
+    }
+
+    @Test
+    void leaseExpiredOnTheLastAttemptIsMarkedFailed() throws Exception {
+        exhaustedMessages(1);
+
+        dispatchOnce(smtp.getSmtp().getPort());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(EmailOutbox.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("attempts", new Document("$gte", 8));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("status", EmailOutbox.Status.FAILED);
+        assertThat(counted("failed")).isEqualTo(1);
+    }
+
+    private void exhaustedMessages(long count) {
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(EmailOutbox.class)))
+                .thenReturn(UpdateResult.acknowledged(count, count, null));
+    }
+
+    private void leaseHeld(boolean held) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(EmailOutbox.class)))
+                .thenReturn(UpdateResult.acknowledged(held ? 1 : 0, held ? 1L : 0L, null));
+    }
+
+    // Runs one poll and waits for the worker to finish the batch
+    private void dispatchOnce(int smtpPort) throws InterruptedException {
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(mongoTemplate, emailService(smtpPort),
+                meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 8);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofMinutes(5));
+        dispatcher.start();
+        dispatcher.dispatch();
+        dispatcher.stop();
+    }
+
+    private static EmailService emailService(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpPort);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        EmailService emailService = new EmailService(mailSender, templateEngine);
+        ReflectionTestUtils.setField(emailService, "frontendUrl", "http://localhost:3000");
+        return emailService;
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private Document outcomeFilter() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(UpdateDefinition.class), eq(EmailOutbox.class));
+        return query.getValue().getQueryObject();
+    }
+
+    private Document outcomeUpdate() {
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(EmailOutbox.class));
+        return update.getValue().getUpdateObject();
+    }
+
+    private double counted(String outcome) {
+        return meterRegistry.counter("email.messages", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.ratingmicroservice.timing;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class QueryBudgetTests {
+
+    @Test
+    void failModeAnswers500InsteadOfTheBody() throws Exception {
+        MockMvc mvc = mockMvc(QueryBudget.Mode.FAIL);
+
+        mvc.perform(get("/items").param("commands", "3"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(status().reason(containsString("Query budget exceeded by GET /items: 3 Mongo commands")));
+    }
+
+    @Test
+    void failModeKeepsRequestsWithinBudget() throws Exception {
+        MockMvc mvc = mockMvc(QueryBudget.Mode.FAIL);
+
+        mvc.perform(get("/items").param("commands", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"item\"]"))
+                .andExpect(header().string("Server-Timing", containsString("mongo;desc=\"x2\"")));
+    }
+
+    @Test
+    void endpointBudgetIsKeyedOnTheMappedPattern() throws Exception {
+        MockMvc mvc = mockMvc(QueryBudget.Mode.FAIL);
+
+        mvc.perform(get("/items/42").param("commands", "2"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(status().reason(containsString("GET /items/{id}: 2 Mongo commands (budget 1)")));
+    }
+
+    @Test
+    void failModeCoversBodiesWrittenWithoutAConverter() throws Exception {
+        MockMvc mvc = mockMvc(QueryBudget.Mode.FAIL);
+
+        mvc.perform(get("/raw").param("commands", "3"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void warnModeOnlyLogs() throws Exception {
+        MockMvc mvc = mockMvc(QueryBudget.Mode.WARN);
+
+        mvc.perform(get("/items").param("commands", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"item\"]"));
+    }
+
+    private static MockMvc mockMvc(QueryBudget.Mode mode) {
+        QueryBudget budget = new QueryBudget();
+        budget.setMode(mode);
+        budget.setMaxCommands(2);
+        budget.setEndpoints(Map.of("GET /items/{id}", 1));
+
+        ServerTimingFilter filter = new ServerTimingFilter(budget);
+        ReflectionTestUtils.setField(filter, "header", true);
+        ReflectionTestUtils.setField(filter, "logSampleRate", 0.0);
+        ReflectionTestUtils.setField(filter, "logSlowerThan", Duration.ofMinutes(1));
+
+        return MockMvcBuilders.standaloneSetup(new ItemController())
+                .setControllerAdvice(new RenderTimingAdvice(budget))
+                .addFilters(filter)
+                .build();
+    }
+
+    @RestController
+    static class ItemController {
+
+        @GetMapping("/items")
+        List<String> items(@RequestParam int commands) {
+            runCommands(commands);
+            return List.of("item");
+        }
+
+        @GetMapping("/items/{id}")
+        List<String> item(@PathVariable String id, @RequestParam int commands) {
+            runCommands(commands);
+            return List.of("item");
+        }
+
+        @GetMapping("/raw")
+        void raw(@RequestParam int commands, HttpServletResponse response) throws IOException {
+            runCommands(commands);
+            response.getWriter().write("raw");
+        }
+
+        // What MongoCommandMonitor records for each command the driver completes
+        private static void runCommands(int commands) {
+            for (int i = 0; i < commands; i++) {
+                RequestTimings.recordMongo(1_000_000, 100);
+            }
+        }
+    }
+}